@@ -0,0 +1,125 @@
+package calc;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @PACKAGE : calc
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 21:50
+ * @Desc : double求和各档次的性能与误差对比
+ * <p>对同一组金额类数据依次计时逐个 MathExtendUtils.add、精确求和 MathExtendUtils.sum、直接相加、
+ * 两两求和、Neumaier补偿求和及其并行流版本，吞吐量按每秒累加的元素个数计；
+ * 每轮结束后在标准输出打印各档次与精确十进制和的差（以ulp计），便于按场景选择档次。
+ * 运行：mvn -Pbenchmark package exec:exec -Djmh.args=CompensatedSumBenchmark</p>
+ * @History :
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompensatedSumBenchmark {
+
+    private static final int SIZE = 100_000;
+
+    @Param({"42"})
+    private long seed;
+
+    private double[] values;
+
+    private double exact;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(seed);
+        values = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            // 金额类数据：两位小数、正负混合、数量级差异大
+            values[i] = Math.rint((random.nextDouble() - 0.45) * Math.pow(10, random.nextInt(9))) / 100;
+        }
+        BigDecimal sum = BigDecimal.ZERO;
+        for (double v : values) {
+            sum = sum.add(new BigDecimal(v));
+        }
+        exact = sum.doubleValue();
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        double naive = 0;
+        for (double v : values) {
+            naive += v;
+        }
+        System.out.println();
+        System.out.println("error (ulp): add fold " + ulps(addFold()) + ", exact " + ulps(MathExtendUtils.sum(values))
+                + ", naive " + ulps(naive) + ", pairwise " + ulps(CompensatedSum.pairwiseSum(values))
+                + ", Neumaier " + ulps(CompensatedSum.sum(values)));
+    }
+
+    private long ulps(double result) {
+        return Math.round(Math.abs(result - exact) / Math.ulp(exact));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double addFold() {
+        double s = 0;
+        for (double x : values) {
+            s = MathExtendUtils.add(s, x);
+        }
+        return s;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double exactSum() {
+        return MathExtendUtils.sum(values);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double naiveLoop() {
+        double s = 0;
+        for (double x : values) {
+            s += x;
+        }
+        return s;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double pairwiseSum() {
+        return CompensatedSum.pairwiseSum(values);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double neumaierSum() {
+        return CompensatedSum.sum(values);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double neumaierParallelStream() {
+        return CompensatedSum.sum(Arrays.stream(values).parallel());
+    }
+}
@@ -0,0 +1,92 @@
+package date;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @PACKAGE : date
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 11:20
+ * @Desc : DateCodec与SimpleDateFormat的性能对比
+ * <p>对比 yyyy-MM-dd HH:mm:ss 格式化和 yyyy-MM-dd 解析两条路径：旧版每次新建SimpleDateFormat，
+ * 新版经DateCodec输出到String、StringBuilder、char[]，或解析为纪元毫秒、纪元日。
+ * 运行：mvn -Pbenchmark package exec:exec -Djmh.args=DateCodecBenchmark</p>
+ * @History :
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateCodecBenchmark {
+
+    private static final int DAYS = 1024;
+
+    private final long base = System.currentTimeMillis();
+
+    private final String[] days = new String[DAYS];
+
+    private final StringBuilder sb = new StringBuilder(32);
+
+    private final char[] buf = new char[32];
+
+    private int i;
+
+    @Setup
+    public void setup() {
+        for (int d = 0; d < DAYS; d++) {
+            days[d] = DateCodec.format(DateLayout.DATE, base + d * DateCodec.MILLIS_PER_DAY);
+        }
+    }
+
+    @Benchmark
+    public String formatSimpleDateFormat() {
+        return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date(base + i++));
+    }
+
+    @Benchmark
+    public String formatCodecString() {
+        return DateCodec.format(DateLayout.DATE_TIME, base + i++);
+    }
+
+    @Benchmark
+    public int formatCodecStringBuilder() {
+        sb.setLength(0);
+        DateCodec.format(DateLayout.DATE_TIME, base + i++, sb);
+        return sb.length();
+    }
+
+    @Benchmark
+    public int formatCodecChars() {
+        return DateCodec.format(DateLayout.DATE_TIME, base + i++, buf, 0);
+    }
+
+    @Benchmark
+    public long parseSimpleDateFormat() throws ParseException {
+        return new SimpleDateFormat("yyyy-MM-dd").parse(days[i++ & (DAYS - 1)]).getTime();
+    }
+
+    @Benchmark
+    public long parseCodecEpochMillis() throws ParseException {
+        return DateCodec.parseEpochMillis(DateLayout.DATE, days[i++ & (DAYS - 1)]);
+    }
+
+    @Benchmark
+    public int parseCodecEpochDay() throws ParseException {
+        return DateCodec.parseEpochDay(DateLayout.DATE, days[i++ & (DAYS - 1)]);
+    }
+}
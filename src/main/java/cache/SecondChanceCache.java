@@ -0,0 +1,200 @@
+package cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * @PACKAGE : cache
+ * @Author : zhuxianfei
+ * @Date : 2026/10/18 10:30
+ * @Desc : 有容量上限的并发缓存，按二次机会算法淘汰
+ * <p>日期格式、数字格式、密钥缓存共用的实现：</p>
+ * <pre>
+ * 1.命中时只在访问标记未置位时写一次volatile，读多写少时没有竞争
+ * 2.超出容量后扫描条目，清除途中遇到的访问标记，淘汰第一个最近未被访问的条目；刚放入的条目不参与淘汰
+ * 3.加载在锁外进行，并发加载同一个键时只有先放入的值生效，落选的值与被淘汰、失效、清空的值一样交给 discard 回调
+ * 4.get 可传入失效判断（如超过存活时间），失效的条目先移除再重新加载
+ * </pre>
+ * <p>命中、未命中、淘汰、失效次数可通过统计方法获取。</p>
+ * @History :
+ */
+public final class SecondChanceCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    /**
+     * 值离开缓存或加载落选时调用，可为null
+     */
+    private final Consumer<? super V> discard;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param maxSize 容量
+     */
+    public SecondChanceCache(int maxSize) {
+        this(maxSize, null);
+    }
+
+    /**
+     * @param maxSize 容量
+     * @param discard 值被淘汰、失效、清空或并发加载落选时的回调，如清零密钥；null表示不需要
+     */
+    public SecondChanceCache(int maxSize, Consumer<? super V> discard) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maxSize must be a positive integer");
+        }
+        this.maxSize = maxSize;
+        this.discard = discard;
+    }
+
+    /**
+     * <p>获取键对应的值，未缓存时用loader加载并放入缓存。</p>
+     *
+     * @param key    键
+     * @param loader 加载函数，不能返回null
+     * @return V
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        return get(key, null, loader);
+    }
+
+    /**
+     * <p>获取键对应的值，未缓存或已失效时用loader加载并放入缓存。</p>
+     *
+     * @param key    键
+     * @param stale  失效判断，null表示不会失效
+     * @param loader 加载函数，不能返回null
+     * @return V
+     */
+    public V get(K key, Predicate<? super V> stale, Function<? super K, ? extends V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (stale == null || !stale.test(entry.value)) {
+                return hit(entry);
+            }
+            if (entries.remove(key, entry)) {
+                invalidations.increment();
+                discard(entry.value);
+            }
+        }
+        return miss(key, loader);
+    }
+
+    private V hit(Entry<V> entry) {
+        hits.increment();
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        return entry.value;
+    }
+
+    private V miss(K key, Function<? super K, ? extends V> loader) {
+        Entry<V> created = new Entry<>(Objects.requireNonNull(loader.apply(key), "loader returned null"));
+        Entry<V> prev = entries.putIfAbsent(key, created);
+        if (prev != null) {
+            discard(created.value);
+            return hit(prev);
+        }
+        misses.increment();
+        if (entries.size() > maxSize) {
+            evict(key);
+        }
+        return created.value;
+    }
+
+    /**
+     * 淘汰一个最近未被访问的条目，扫描途中清除其余条目的访问标记
+     */
+    private void evict(K justAdded) {
+        for (int round = 0; round < 2; round++) {
+            Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<K, Entry<V>> e = it.next();
+                if (e.getKey().equals(justAdded)) {
+                    continue;
+                }
+                Entry<V> entry = e.getValue();
+                if (entry.referenced) {
+                    entry.referenced = false;
+                } else if (entries.remove(e.getKey(), entry)) {
+                    evictions.increment();
+                    discard(entry.value);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void discard(V value) {
+        if (discard != null) {
+            discard.accept(value);
+        }
+    }
+
+    /**
+     * <p>清空缓存，每个移除的值交给discard回调，统计数据保留。</p>
+     */
+    public void clear() {
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Entry<V>> e = it.next();
+            if (entries.remove(e.getKey(), e.getValue())) {
+                discard(e.getValue().value);
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * <p>因失效判断成立而移除的次数。</p>
+     *
+     * @return long
+     */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+
+        /**
+         * 最近是否被访问过（二次机会算法）
+         */
+        private volatile boolean referenced;
+
+        Entry(V value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package cache;
+
+import java.text.Format;
+import java.util.Objects;
+
+/**
+ * @PACKAGE : cache
+ * @Author : zhuxianfei
+ * @Date : 2026/10/18 10:35
+ * @Desc : 按线程克隆的格式
+ * <p>Format 不是线程安全的，而编译模式串的代价远大于克隆。本类保存一个编译好的原型，
+ * 每个线程第一次使用时从原型克隆出自己的实例，之后一直复用；原型创建后不再修改，只用于克隆。</p>
+ * @History :
+ */
+public final class ThreadLocalFormat<F extends Format> {
+
+    private final F prototype;
+
+    private final ThreadLocal<F> local;
+
+    /**
+     * @param prototype 编译好的原型，交给本类后不应再修改
+     */
+    @SuppressWarnings("unchecked")
+    public ThreadLocalFormat(F prototype) {
+        this.prototype = Objects.requireNonNull(prototype, "prototype");
+        this.local = ThreadLocal.withInitial(() -> (F) this.prototype.clone());
+    }
+
+    /**
+     * <p>返回当前线程的实例，只能在当前线程使用。</p>
+     *
+     * @return F
+     */
+    public F get() {
+        return local.get();
+    }
+}
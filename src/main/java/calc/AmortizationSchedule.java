@@ -0,0 +1,496 @@
+package calc;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * @PACKAGE : calc
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 22:10
+ * @Desc : 还款计划（租赁、贷款摊还表）
+ * <p>按等额本息、等额本金、按期付息到期还本三种方式生成每期的还款额、本金、利息和剩余本金。
+ * 金额以long非标度值表示（如scale=2时以分为单位），年利率同样以非标度值加标度给出，计算中不创建对象：</p>
+ * <pre>
+ * 1.每期利息 = 期初剩余本金 × 年利率 / 每年期数，按舍入模式舍入到金额标度，整数运算，结果精确
+ * 2.等额本息每期还款额按公式 P·r·(1+r)^n/((1+r)^n-1) 以34位有效数字（MathContext.DECIMAL128）的BigDecimal
+ *   计算，只在最后舍入一次，中间误差在10^-30量级，除非恰好落在舍入边界上，结果与精确值舍入相同；
+ *   等额本金每期本金为 P/n 舍入，舍入差额都在最后一期结清，最后一期剩余本金恰为0
+ * 3.按期付息到期还本：前n-1期只付利息，最后一期偿还全部本金
+ * </pre>
+ * <p>结果可一次写入列数组（{@link #toColumns()}、{@link #fill}），也可逐期惰性生成（{@link #cursor()}、
+ * {@link #stream()}），期数很多时不必保存整张表；{@link #computeAll} 并行计算多份合同。创建后不可变，可在线程间共享。</p>
+ * <pre>
+ * AmortizationSchedule s = AmortizationSchedule.ofYears(Method.EQUAL_INSTALLMENT,
+ *         new BigDecimal("100000.00"), new BigDecimal("0.0435"), 12, 3);
+ * s.stream().forEach(row -> ...);
+ * </pre>
+ * @History :
+ */
+public final class AmortizationSchedule {
+
+    /**
+     * 还款方式
+     */
+    public enum Method {
+        /**
+         * 等额本息
+         */
+        EQUAL_INSTALLMENT,
+        /**
+         * 等额本金
+         */
+        EQUAL_PRINCIPAL,
+        /**
+         * 按期付息，到期还本
+         */
+        INTEREST_ONLY
+    }
+
+    private final Method method;
+
+    private final long principal;
+
+    private final int scale;
+
+    private final long annualRate;
+
+    private final int rateScale;
+
+    private final int periodsPerYear;
+
+    private final int terms;
+
+    private final RoundingMode mode;
+
+    /**
+     * 每期利息的分母 10^rateScale × 每年期数
+     */
+    private final long rateDenominator;
+
+    /**
+     * 剩余本金不超过此值时 剩余本金×年利率 不溢出
+     */
+    private final long balanceLimit;
+
+    /**
+     * 等额本息的每期还款额，或等额本金的每期本金
+     */
+    private final long installment;
+
+    /**
+     * @param method         还款方式
+     * @param principal      本金的非标度值
+     * @param scale          金额标度，如2表示以分为单位
+     * @param annualRate     年利率的非标度值，如0.0435为435
+     * @param rateScale      年利率的标度，如0.0435为4
+     * @param periodsPerYear 每年期数，如按月还款为12
+     * @param terms          总期数
+     * @param mode           舍入模式
+     */
+    public AmortizationSchedule(Method method, long principal, int scale, long annualRate, int rateScale,
+                                int periodsPerYear, int terms, RoundingMode mode) {
+        if (method == null || mode == null) {
+            throw new IllegalArgumentException("The method and mode must not be null");
+        }
+        if (principal < 0 || annualRate < 0) {
+            throw new IllegalArgumentException("The principal and annualRate must not be negative");
+        }
+        if (periodsPerYear < 1 || terms < 1) {
+            throw new IllegalArgumentException("The periodsPerYear and terms must be positive");
+        }
+        if (rateScale < 0 || rateScale >= Decimal.LONG_TEN_POWERS.length
+                || Decimal.LONG_TEN_POWERS[rateScale] > Long.MAX_VALUE / periodsPerYear) {
+            throw new IllegalArgumentException("The rateScale is out of range: " + rateScale);
+        }
+        this.method = method;
+        this.principal = principal;
+        this.scale = scale;
+        this.annualRate = annualRate;
+        this.rateScale = rateScale;
+        this.periodsPerYear = periodsPerYear;
+        this.terms = terms;
+        this.mode = mode;
+        this.rateDenominator = Decimal.LONG_TEN_POWERS[rateScale] * periodsPerYear;
+        this.balanceLimit = annualRate == 0 ? Long.MAX_VALUE : Long.MAX_VALUE / annualRate;
+        this.installment = computeInstallment();
+    }
+
+    /**
+     * <p>以BigDecimal给出本金和年利率，金额标度取本金的标度，舍入模式为HALF_UP。</p>
+     *
+     * @param method         还款方式
+     * @param principal      本金
+     * @param annualRate     年利率，如0.0435
+     * @param periodsPerYear 每年期数
+     * @param terms          总期数
+     * @return AmortizationSchedule
+     */
+    public static AmortizationSchedule of(Method method, BigDecimal principal, BigDecimal annualRate,
+                                          int periodsPerYear, int terms) {
+        return new AmortizationSchedule(method, principal.unscaledValue().longValueExact(), principal.scale(),
+                annualRate.unscaledValue().longValueExact(), annualRate.scale(), periodsPerYear, terms,
+                RoundingMode.HALF_UP);
+    }
+
+    /**
+     * <p>按年限给出期限，总期数为 年限×每年期数 向上取整，同 {@link MathExtendUtils#getLeaseTerm(Object, Object)}。</p>
+     *
+     * @param method         还款方式
+     * @param principal      本金
+     * @param annualRate     年利率，如0.0435
+     * @param periodsPerYear 每年期数
+     * @param years          年限，可为小数
+     * @return AmortizationSchedule
+     */
+    public static AmortizationSchedule ofYears(Method method, BigDecimal principal, BigDecimal annualRate,
+                                               int periodsPerYear, double years) {
+        return of(method, principal, annualRate, periodsPerYear,
+                MathExtendUtils.getLeaseTermCount(years, periodsPerYear));
+    }
+
+    private long computeInstallment() {
+        switch (method) {
+            case EQUAL_INSTALLMENT:
+                if (annualRate == 0) {
+                    return divide(principal, terms);
+                }
+                MathContext mc = MathContext.DECIMAL128;
+                BigDecimal r = BigDecimal.valueOf(annualRate).divide(BigDecimal.valueOf(rateDenominator), mc);
+                BigDecimal factor = BigDecimal.ONE.add(r).pow(terms, mc);
+                return BigDecimal.valueOf(principal).multiply(r, mc).multiply(factor, mc)
+                        .divide(factor.subtract(BigDecimal.ONE), mc).setScale(0, mode).longValueExact();
+            case EQUAL_PRINCIPAL:
+                return divide(principal, terms);
+            default:
+                return 0;
+        }
+    }
+
+    private long divide(long dividend, long divisor) {
+        long r = Decimal.divide(dividend, 0, divisor, 0, 0, mode);
+        if (r == Decimal.OVERFLOW) {
+            throw new ArithmeticException("Amount out of long range");
+        }
+        return r;
+    }
+
+    /**
+     * 期初剩余本金对应的一期利息
+     */
+    private long interestOf(long balance) {
+        if (balance <= balanceLimit) {
+            return divide(balance * annualRate, rateDenominator);
+        }
+        return BigDecimal.valueOf(balance).multiply(BigDecimal.valueOf(annualRate))
+                .divide(BigDecimal.valueOf(rateDenominator), 0, mode).longValueExact();
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public long getPrincipal() {
+        return principal;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public int getTerms() {
+        return terms;
+    }
+
+    /**
+     * <p>等额本息的每期还款额（最后一期除外），等额本金的每期本金（最后一期除外），按期付息时为0。</p>
+     *
+     * @return long 非标度值
+     */
+    public long getInstallment() {
+        return installment;
+    }
+
+    /**
+     * <p>逐期生成还款计划的游标，每期复用同一对象，不创建新对象。</p>
+     *
+     * @return Cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * <p>逐期惰性生成的还款计划流。</p>
+     *
+     * @return Stream
+     */
+    public Stream<Row> stream() {
+        final Cursor cursor = cursor();
+        Spliterator<Row> spliterator = new Spliterators.AbstractSpliterator<Row>(terms,
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Row> action) {
+                if (!cursor.next()) {
+                    return false;
+                }
+                action.accept(new Row(cursor.period, cursor.payment, cursor.principalPaid, cursor.interest,
+                        cursor.balance, scale));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * <p>把各期数据写入调用方提供的列数组的 [offset, offset+总期数) 区间，不需要的列可传null。</p>
+     *
+     * @param payment   还款额
+     * @param principal 本金
+     * @param interest  利息
+     * @param balance   期末剩余本金
+     * @param offset    写入位置
+     * @return int 写入的期数
+     */
+    public int fill(long[] payment, long[] principal, long[] interest, long[] balance, int offset) {
+        Cursor cursor = cursor();
+        int i = offset;
+        while (cursor.next()) {
+            if (payment != null) {
+                payment[i] = cursor.payment;
+            }
+            if (principal != null) {
+                principal[i] = cursor.principalPaid;
+            }
+            if (interest != null) {
+                interest[i] = cursor.interest;
+            }
+            if (balance != null) {
+                balance[i] = cursor.balance;
+            }
+            i++;
+        }
+        return i - offset;
+    }
+
+    /**
+     * <p>生成完整还款计划的列数组。</p>
+     *
+     * @return Columns
+     */
+    public Columns toColumns() {
+        Columns columns = new Columns(terms, scale);
+        fill(columns.payment, columns.principal, columns.interest, columns.balance, 0);
+        return columns;
+    }
+
+    /**
+     * <p>计算多份合同的还款计划，结果与输入一一对应。</p>
+     *
+     * @param schedules 合同
+     * @param parallel  是否并行计算
+     * @return Columns[]
+     */
+    public static Columns[] computeAll(AmortizationSchedule[] schedules, boolean parallel) {
+        Columns[] result = new Columns[schedules.length];
+        if (parallel) {
+            Arrays.parallelSetAll(result, i -> schedules[i].toColumns());
+        } else {
+            Arrays.setAll(result, i -> schedules[i].toColumns());
+        }
+        return result;
+    }
+
+    /**
+     * 逐期游标，非线程安全
+     */
+    public final class Cursor {
+
+        private int period;
+
+        private long payment;
+
+        private long principalPaid;
+
+        private long interest;
+
+        private long balance = principal;
+
+        private Cursor() {
+        }
+
+        /**
+         * <p>前进到下一期。</p>
+         *
+         * @return boolean 已过最后一期时返回false
+         */
+        public boolean next() {
+            if (period >= terms) {
+                return false;
+            }
+            period++;
+            interest = interestOf(balance);
+            if (period == terms) {
+                principalPaid = balance;
+            } else if (method == Method.EQUAL_INSTALLMENT) {
+                principalPaid = Math.min(Math.max(installment - interest, 0), balance);
+            } else if (method == Method.EQUAL_PRINCIPAL) {
+                principalPaid = Math.min(installment, balance);
+            } else {
+                principalPaid = 0;
+            }
+            payment = principalPaid + interest;
+            balance -= principalPaid;
+            return true;
+        }
+
+        /**
+         * @return int 期号，从1开始
+         */
+        public int getPeriod() {
+            return period;
+        }
+
+        public long getPayment() {
+            return payment;
+        }
+
+        public long getPrincipal() {
+            return principalPaid;
+        }
+
+        public long getInterest() {
+            return interest;
+        }
+
+        /**
+         * @return long 期末剩余本金
+         */
+        public long getBalance() {
+            return balance;
+        }
+    }
+
+    /**
+     * 一期还款数据，金额为标度 {@link #getScale()} 下的非标度值
+     */
+    public static final class Row {
+
+        private final int period;
+
+        private final long payment;
+
+        private final long principal;
+
+        private final long interest;
+
+        private final long balance;
+
+        private final int scale;
+
+        Row(int period, long payment, long principal, long interest, long balance, int scale) {
+            this.period = period;
+            this.payment = payment;
+            this.principal = principal;
+            this.interest = interest;
+            this.balance = balance;
+            this.scale = scale;
+        }
+
+        public int getPeriod() {
+            return period;
+        }
+
+        public long getPayment() {
+            return payment;
+        }
+
+        public long getPrincipal() {
+            return principal;
+        }
+
+        public long getInterest() {
+            return interest;
+        }
+
+        public long getBalance() {
+            return balance;
+        }
+
+        public int getScale() {
+            return scale;
+        }
+
+        @Override
+        public String toString() {
+            return period + "," + BigDecimal.valueOf(payment, scale) + "," + BigDecimal.valueOf(principal, scale)
+                    + "," + BigDecimal.valueOf(interest, scale) + "," + BigDecimal.valueOf(balance, scale);
+        }
+    }
+
+    /**
+     * 完整还款计划的列数组，下标0为第1期；数组直接返回，不做拷贝
+     */
+    public static final class Columns {
+
+        private final long[] payment;
+
+        private final long[] principal;
+
+        private final long[] interest;
+
+        private final long[] balance;
+
+        private final int scale;
+
+        Columns(int terms, int scale) {
+            this.payment = new long[terms];
+            this.principal = new long[terms];
+            this.interest = new long[terms];
+            this.balance = new long[terms];
+            this.scale = scale;
+        }
+
+        public long[] getPayment() {
+            return payment;
+        }
+
+        public long[] getPrincipal() {
+            return principal;
+        }
+
+        public long[] getInterest() {
+            return interest;
+        }
+
+        public long[] getBalance() {
+            return balance;
+        }
+
+        public int getScale() {
+            return scale;
+        }
+
+        public long getTotalPayment() {
+            long total = 0;
+            for (long v : payment) {
+                total = Math.addExact(total, v);
+            }
+            return total;
+        }
+
+        public long getTotalInterest() {
+            long total = 0;
+            for (long v : interest) {
+                total = Math.addExact(total, v);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package calc;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+import cache.ThreadLocalFormat;
+
+/**
+ * @PACKAGE : calc
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 22:50
+ * @Desc : 预编译的数字格式
+ * <p>对外不可变、可在线程间共享。模式串只在创建时编译一次，之后每个线程从原型克隆出自己的
+ * DecimalFormat 实例使用，克隆不再重新解析模式串。格式化结果与 new DecimalFormat(pattern).format 相同。</p>
+ * @History :
+ */
+public final class CachedNumberFormat {
+
+    private final String pattern;
+
+    private final Locale locale;
+
+    private final ThreadLocalFormat<DecimalFormat> local;
+
+    CachedNumberFormat(String pattern, Locale locale) {
+        this.pattern = pattern;
+        this.locale = locale;
+        this.local = new ThreadLocalFormat<>(new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(locale)));
+    }
+
+    /**
+     * <p>格式化十进制数。</p>
+     *
+     * @param number 十进制数
+     * @return String
+     */
+    public String format(BigDecimal number) {
+        return local.get().format(number);
+    }
+
+    public String format(double number) {
+        return local.get().format(number);
+    }
+
+    public String format(long number) {
+        return local.get().format(number);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+}
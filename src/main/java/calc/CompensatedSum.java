@@ -0,0 +1,163 @@
+package calc;
+
+import lombok.extern.log4j.Log4j;
+
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+
+/**
+ * @PACKAGE : calc
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 21:40
+ * @Desc : double补偿求和
+ * <p>只需要double精度、不要求十进制精确结果时使用的快速求和，与 {@link MathExtendUtils#sum(double[])} 等
+ * 基于十进制的精确求和相比不做任何十进制转换，速度接近直接相加，误差远小于直接相加。</p>
+ * <pre>
+ * 设 n 为元素个数，ε = 2^-53 为double的单位舍入误差，S 为精确和，Σ|x| 为各元素绝对值之和：
+ * 1.直接相加            |误差| ≤ (n-1)·ε·Σ|x|
+ * 2.两两求和 pairwise    |误差| ≤ (log2(n/128)+127)·ε·Σ|x|，分块内直接相加，块间二分合并
+ * 3.Neumaier补偿求和     |误差| ≤ 2ε·|S| + O(n·ε²)·Σ|x|，即 n·ε 远小于1时结果与精确和只差最后一次舍入
+ * 正负相消严重（|S| 远小于 Σ|x|）时只有Neumaier能保持相对精度。结果须与十进制完全一致时使用精确求和。
+ * </pre>
+ * <p>本类实例是Neumaier累加器，非线程安全；并行计算时各线程各用一个，最后 {@link #combine(CompensatedSum)}。</p>
+ * @History :
+ */
+@Log4j
+public final class CompensatedSum implements DoubleConsumer {
+
+    /**
+     * 两两求和时直接相加的块大小
+     */
+    private static final int PAIRWISE_BLOCK = 128;
+
+    private double sum;
+
+    /**
+     * 累计的舍入误差
+     */
+    private double compensation;
+
+    /**
+     * <p>加入一个数。</p>
+     *
+     * @param value double值
+     */
+    public void add(double value) {
+        double t = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - t) + value;
+        } else {
+            compensation += (value - t) + sum;
+        }
+        sum = t;
+    }
+
+    @Override
+    public void accept(double value) {
+        add(value);
+    }
+
+    /**
+     * <p>合并另一个累加器。</p>
+     *
+     * @param other 另一个累加器
+     * @return CompensatedSum
+     */
+    public CompensatedSum combine(CompensatedSum other) {
+        add(other.sum);
+        compensation += other.compensation;
+        return this;
+    }
+
+    /**
+     * <p>补偿后的和；出现无穷大时与直接相加的结果相同。</p>
+     *
+     * @return double
+     */
+    public double getSum() {
+        double result = sum + compensation;
+        // 无穷大参与运算时补偿项为NaN，此时直接返回未补偿的和
+        if (Double.isNaN(result) && Double.isInfinite(sum)) {
+            return sum;
+        }
+        return result;
+    }
+
+    /**
+     * <p>数组的Neumaier补偿求和。</p>
+     *
+     * @param values 数组
+     * @return double
+     */
+    public static double sum(double[] values) {
+        return sum(values, 0, values.length);
+    }
+
+    /**
+     * <p>数组 [from, to) 区间的Neumaier补偿求和。</p>
+     *
+     * @param values 数组
+     * @param from   起始下标（含）
+     * @param to     结束下标（不含）
+     * @return double
+     */
+    public static double sum(double[] values, int from, int to) {
+        CompensatedSum acc = new CompensatedSum();
+        for (int i = from; i < to; i++) {
+            acc.add(values[i]);
+        }
+        return acc.getSum();
+    }
+
+    /**
+     * <p>流的Neumaier补偿求和，支持并行流。</p>
+     *
+     * @param stream double流
+     * @return double
+     */
+    public static double sum(DoubleStream stream) {
+        return stream.collect(CompensatedSum::new, CompensatedSum::add, CompensatedSum::combine).getSum();
+    }
+
+    /**
+     * <p>数组的两两求和，速度与直接相加相当，误差随元素个数按对数增长。</p>
+     *
+     * @param values 数组
+     * @return double
+     */
+    public static double pairwiseSum(double[] values) {
+        return pairwiseSum(values, 0, values.length);
+    }
+
+    /**
+     * <p>数组 [from, to) 区间的两两求和。</p>
+     *
+     * @param values 数组
+     * @param from   起始下标（含）
+     * @param to     结束下标（不含）
+     * @return double
+     */
+    public static double pairwiseSum(double[] values, int from, int to) {
+        if (to - from <= PAIRWISE_BLOCK) {
+            double s = 0;
+            for (int i = from; i < to; i++) {
+                s += values[i];
+            }
+            return s;
+        }
+        int mid = (from + to) >>> 1;
+        return pairwiseSum(values, from, mid) + pairwiseSum(values, mid, to);
+    }
+
+    public static void main(String[] args) {
+        double[] values = {1e16, 0.1, -1e16, 0.2, 0.3};
+        double naive = 0;
+        for (double v : values) {
+            naive += v;
+        }
+        log.info("直接相加:" + naive);
+        log.info("两两求和:" + pairwiseSum(values));
+        log.info("Neumaier补偿求和:" + sum(values));
+        log.info("精确求和:" + MathExtendUtils.sum(values));
+    }
+}
@@ -0,0 +1,570 @@
+package calc;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * @PACKAGE : calc
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 18:30
+ * @Desc : 定点十进制数
+ * <p>以 long 非标度值加 int 标度表示 非标度值×10^-标度，取值、标度和运算结果与BigDecimal一致。
+ * 18位有效数字以内的金额全程在long上运算，溢出时自动改用BigDecimal，调用方无需关心。</p>
+ * <p>另提供一组直接在 (非标度值, 标度) 上运算的静态方法，结果标度由运算决定（见各方法说明），
+ * 溢出时返回 {@link #OVERFLOW}，由调用方改走BigDecimal，循环中可完全不创建对象。</p>
+ * @History :
+ */
+public final class Decimal extends Number implements Comparable<Decimal> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 静态运算的溢出标志；Long.MIN_VALUE 不作为合法的非标度值
+     */
+    public static final long OVERFLOW = Long.MIN_VALUE;
+
+    public static final Decimal ZERO = new Decimal(0, 0, null);
+
+    public static final Decimal ONE = new Decimal(1, 0, null);
+
+    /**
+     * 10^0 至 10^18
+     */
+    static final long[] LONG_TEN_POWERS = new long[19];
+
+    /**
+     * Long.MAX_VALUE / 10^k，放大10^k不溢出的绝对值上限
+     */
+    private static final long[] SCALE_UP_LIMITS = new long[19];
+
+    /**
+     * 10^0 至 10^22，均可由double精确表示
+     */
+    static final double[] DOUBLE_TEN_POWERS = new double[23];
+
+    /**
+     * 2^53，绝对值小于此值的long可由double精确表示
+     */
+    static final long DOUBLE_EXACT_LIMIT = 1L << 53;
+
+    static {
+        LONG_TEN_POWERS[0] = 1;
+        for (int i = 1; i < LONG_TEN_POWERS.length; i++) {
+            LONG_TEN_POWERS[i] = LONG_TEN_POWERS[i - 1] * 10;
+        }
+        for (int i = 0; i < SCALE_UP_LIMITS.length; i++) {
+            SCALE_UP_LIMITS[i] = Long.MAX_VALUE / LONG_TEN_POWERS[i];
+        }
+        DOUBLE_TEN_POWERS[0] = 1;
+        for (int i = 1; i < DOUBLE_TEN_POWERS.length; i++) {
+            DOUBLE_TEN_POWERS[i] = DOUBLE_TEN_POWERS[i - 1] * 10;
+        }
+    }
+
+    private final long unscaled;
+
+    private final int scale;
+
+    /**
+     * 非标度值超出long范围时的取值，否则为null
+     */
+    private final BigDecimal big;
+
+    private Decimal(long unscaled, int scale, BigDecimal big) {
+        this.unscaled = unscaled;
+        this.scale = scale;
+        this.big = big;
+    }
+
+    /**
+     * <p>非标度值×10^-标度。</p>
+     *
+     * @param unscaled 非标度值，不能为Long.MIN_VALUE
+     * @param scale    标度
+     * @return Decimal
+     */
+    public static Decimal valueOf(long unscaled, int scale) {
+        if (unscaled == OVERFLOW) {
+            return new Decimal(0, scale, BigDecimal.valueOf(unscaled, scale));
+        }
+        if (unscaled == 0 && scale == 0) {
+            return ZERO;
+        }
+        return new Decimal(unscaled, scale, null);
+    }
+
+    /**
+     * <p>取值同 new BigDecimal(Double.toString(v))，即double的最短十进制表示，标度为其小数位数。</p>
+     *
+     * @param v double值，不能为NaN或无穷大
+     * @return Decimal
+     */
+    public static Decimal valueOf(double v) {
+        int s = scaleOf(v);
+        if (s >= 0) {
+            return valueOf(unscaledOf(v, s), s);
+        }
+        return valueOf(new BigDecimal(Double.toString(v)));
+    }
+
+    /**
+     * <p>取值同 new BigDecimal(v)。</p>
+     *
+     * @param v 数字字符串
+     * @return Decimal
+     */
+    public static Decimal valueOf(String v) {
+        return valueOf(new BigDecimal(v));
+    }
+
+    /**
+     * <p>由BigDecimal转换，非标度值在long范围内时不再持有原对象。</p>
+     *
+     * @param v BigDecimal
+     * @return Decimal
+     */
+    public static Decimal valueOf(BigDecimal v) {
+        BigInteger u = v.unscaledValue();
+        if (u.bitLength() < 64 && u.longValue() != OVERFLOW) {
+            return valueOf(u.longValue(), v.scale());
+        }
+        return new Decimal(0, v.scale(), v);
+    }
+
+    /**
+     * <p>非标度值是否在long范围内。</p>
+     *
+     * @return boolean
+     */
+    public boolean isCompact() {
+        return big == null;
+    }
+
+    /**
+     * <p>非标度值，超出long范围时抛出ArithmeticException。</p>
+     *
+     * @return long
+     */
+    public long unscaledValue() {
+        if (big != null) {
+            throw new ArithmeticException("Unscaled value out of long range");
+        }
+        return unscaled;
+    }
+
+    public int scale() {
+        return scale;
+    }
+
+    public int signum() {
+        return big != null ? big.signum() : Long.signum(unscaled);
+    }
+
+    public Decimal negate() {
+        return big != null ? valueOf(big.negate()) : valueOf(-unscaled, scale);
+    }
+
+    public Decimal add(Decimal other) {
+        if (big == null && other.big == null) {
+            long r = add(unscaled, scale, other.unscaled, other.scale);
+            if (r != OVERFLOW) {
+                return valueOf(r, Math.max(scale, other.scale));
+            }
+        }
+        return valueOf(toBigDecimal().add(other.toBigDecimal()));
+    }
+
+    public Decimal subtract(Decimal other) {
+        if (big == null && other.big == null) {
+            long r = subtract(unscaled, scale, other.unscaled, other.scale);
+            if (r != OVERFLOW) {
+                return valueOf(r, Math.max(scale, other.scale));
+            }
+        }
+        return valueOf(toBigDecimal().subtract(other.toBigDecimal()));
+    }
+
+    public Decimal multiply(Decimal other) {
+        if (big == null && other.big == null) {
+            long r = multiply(unscaled, scale, other.unscaled, other.scale);
+            if (r != OVERFLOW) {
+                return valueOf(r, scale + other.scale);
+            }
+        }
+        return valueOf(toBigDecimal().multiply(other.toBigDecimal()));
+    }
+
+    /**
+     * <p>除法，结果保留scale位小数，按指定模式舍入。</p>
+     *
+     * @param other 除数
+     * @param scale 结果标度
+     * @param mode  舍入模式
+     * @return Decimal
+     */
+    public Decimal divide(Decimal other, int scale, RoundingMode mode) {
+        if (big == null && other.big == null && other.unscaled != 0) {
+            long r = divide(unscaled, this.scale, other.unscaled, other.scale, scale, mode);
+            if (r != OVERFLOW) {
+                return valueOf(r, scale);
+            }
+        }
+        return valueOf(toBigDecimal().divide(other.toBigDecimal(), scale, mode));
+    }
+
+    /**
+     * <p>调整标度，按指定模式舍入。</p>
+     *
+     * @param newScale 新标度
+     * @param mode     舍入模式
+     * @return Decimal
+     */
+    public Decimal setScale(int newScale, RoundingMode mode) {
+        if (big == null) {
+            long r = rescale(unscaled, scale, newScale, mode);
+            if (r != OVERFLOW) {
+                return valueOf(r, newScale);
+            }
+        }
+        return valueOf(toBigDecimal().setScale(newScale, mode));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return big != null ? big : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    @Override
+    public int compareTo(Decimal other) {
+        if (big == null && other.big == null) {
+            int c = compare(unscaled, scale, other.unscaled, other.scale);
+            if (c != Integer.MIN_VALUE) {
+                return c;
+            }
+        }
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+
+    @Override
+    public int intValue() {
+        return (int) longValue();
+    }
+
+    @Override
+    public long longValue() {
+        if (big == null && scale == 0) {
+            return unscaled;
+        }
+        return toBigDecimal().longValue();
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return big != null ? big.doubleValue() : toDouble(unscaled, scale);
+    }
+
+    /**
+     * 与BigDecimal一致，取值相同但标度不同的两个数不相等
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Decimal)) {
+            return false;
+        }
+        Decimal other = (Decimal) obj;
+        if (big != null || other.big != null) {
+            return big != null && big.equals(other.big);
+        }
+        return unscaled == other.unscaled && scale == other.scale;
+    }
+
+    @Override
+    public int hashCode() {
+        return big != null ? big.hashCode() : 31 * Long.hashCode(unscaled) + scale;
+    }
+
+    /**
+     * 同 BigDecimal.toString()
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toString();
+    }
+
+    /**
+     * <p>double最短十进制表示的小数位数，即使 rint(v×10^s)/10^s == v 成立的最小s。</p>
+     * <pre>非标度值须小于2^53、s不超过22，不满足（含NaN、无穷大）时返回-1</pre>
+     *
+     * @param v double值
+     * @return int
+     */
+    public static int scaleOf(double v) {
+        if (v != v || Math.abs(v) >= DOUBLE_EXACT_LIMIT) {
+            return -1;
+        }
+        for (int s = 0; s < DOUBLE_TEN_POWERS.length; s++) {
+            double u = Math.rint(v * DOUBLE_TEN_POWERS[s]);
+            if (Math.abs(u) >= DOUBLE_EXACT_LIMIT) {
+                return -1;
+            }
+            if (u / DOUBLE_TEN_POWERS[s] == v) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * <p>double在指定标度下的非标度值，标度应取自 {@link #scaleOf(double)}。</p>
+     *
+     * @param v     double值
+     * @param scale 标度
+     * @return long
+     */
+    public static long unscaledOf(double v, int scale) {
+        return (long) Math.rint(v * DOUBLE_TEN_POWERS[scale]);
+    }
+
+    /**
+     * <p>转换为double，与BigDecimal.doubleValue()一致。</p>
+     *
+     * @param unscaled 非标度值
+     * @param scale    标度
+     * @return double
+     */
+    public static double toDouble(long unscaled, int scale) {
+        if (Math.abs(unscaled) < DOUBLE_EXACT_LIMIT && unscaled != OVERFLOW) {
+            if (scale == 0) {
+                return unscaled;
+            }
+            // 两数均可精确表示，一次除法的结果即为正确舍入
+            if (scale > 0 && scale < DOUBLE_TEN_POWERS.length) {
+                return unscaled / DOUBLE_TEN_POWERS[scale];
+            }
+        }
+        return BigDecimal.valueOf(unscaled, scale).doubleValue();
+    }
+
+    /**
+     * <p>加法，结果标度为 max(s1, s2)。</p>
+     *
+     * @return long 非标度值，溢出时为 {@link #OVERFLOW}
+     */
+    public static long add(long u1, int s1, long u2, int s2) {
+        if (s1 != s2) {
+            int s = Math.max(s1, s2);
+            u1 = scaleUp(u1, s - s1);
+            u2 = scaleUp(u2, s - s2);
+        }
+        if (u1 == OVERFLOW || u2 == OVERFLOW) {
+            return OVERFLOW;
+        }
+        long r = u1 + u2;
+        // 同号相加结果变号即溢出
+        return ((u1 ^ r) & (u2 ^ r)) < 0 ? OVERFLOW : r;
+    }
+
+    /**
+     * <p>减法，结果标度为 max(s1, s2)。</p>
+     *
+     * @return long 非标度值，溢出时为 {@link #OVERFLOW}
+     */
+    public static long subtract(long u1, int s1, long u2, int s2) {
+        return u2 == OVERFLOW ? OVERFLOW : add(u1, s1, -u2, s2);
+    }
+
+    /**
+     * <p>乘法，结果标度为 s1 + s2。</p>
+     *
+     * @return long 非标度值，溢出时为 {@link #OVERFLOW}
+     */
+    public static long multiply(long u1, int s1, long u2, int s2) {
+        if (u1 == OVERFLOW || u2 == OVERFLOW) {
+            return OVERFLOW;
+        }
+        long r = u1 * u2;
+        // 两数均小于2^31时不会溢出，否则用除法复核
+        if ((Math.abs(u1) | Math.abs(u2)) >>> 31 != 0 && u2 != 0 && r / u2 != u1) {
+            return OVERFLOW;
+        }
+        return r;
+    }
+
+    /**
+     * <p>除法，结果标度为scale，按指定模式舍入；除数为0时与BigDecimal一样抛出ArithmeticException。</p>
+     *
+     * @return long 非标度值，溢出时为 {@link #OVERFLOW}
+     */
+    public static long divide(long u1, int s1, long u2, int s2, int scale, RoundingMode mode) {
+        if (u1 == OVERFLOW || u2 == OVERFLOW) {
+            return OVERFLOW;
+        }
+        if (u2 == 0) {
+            throw new ArithmeticException(u1 == 0 ? "Division undefined" : "Division by zero");
+        }
+        // 商的非标度值 = u1×10^(scale-s1+s2) / u2
+        long e = (long) scale - s1 + s2;
+        long n = u1;
+        long d = u2;
+        if (e >= 0) {
+            n = e > Integer.MAX_VALUE ? OVERFLOW : scaleUp(u1, (int) e);
+        } else {
+            d = -e > Integer.MAX_VALUE ? OVERFLOW : scaleUp(u2, (int) -e);
+        }
+        if (n == OVERFLOW || d == OVERFLOW) {
+            return OVERFLOW;
+        }
+        long q = n / d;
+        long r = n % d;
+        if (r == 0) {
+            return q;
+        }
+        long ar = Math.abs(r);
+        int half = Long.compare(ar, Math.abs(d) - ar);
+        return round(q, Long.signum(n) * Long.signum(d), half, mode);
+    }
+
+    /**
+     * <p>将非标度值由scale调整到newScale，按指定模式舍入。</p>
+     *
+     * @return long 非标度值，溢出时为 {@link #OVERFLOW}
+     */
+    public static long rescale(long unscaled, int scale, int newScale, RoundingMode mode) {
+        if (unscaled == OVERFLOW) {
+            return OVERFLOW;
+        }
+        if (newScale >= scale) {
+            return scaleUp(unscaled, newScale - scale);
+        }
+        long k = (long) scale - newScale;
+        if (unscaled == 0) {
+            return 0;
+        }
+        long au = Math.abs(unscaled);
+        if (k < LONG_TEN_POWERS.length) {
+            long d = LONG_TEN_POWERS[(int) k];
+            long q = unscaled / d;
+            long ar = Math.abs(unscaled % d);
+            if (ar == 0) {
+                return q;
+            }
+            return round(q, Long.signum(unscaled), Long.compare(ar, d - ar), mode);
+        }
+        // 舍去19位及以上，商为0；仅舍去19位时余数可能超过一半（5×10^18）
+        int half = k == 19 ? Long.compare(au, 5 * LONG_TEN_POWERS[18]) : -1;
+        return round(0, Long.signum(unscaled), half, mode);
+    }
+
+    /**
+     * <p>按double的最短十进制表示（即 Double.toString 的数字）舍入到scale位小数，
+     * 与 new BigDecimal(Double.toString(v)).setScale(scale, mode).doubleValue() 结果相同。</p>
+     * <pre>
+     * 1.有效数字不超过2^53、小数位不超过22位时全部在long和double上计算，不创建对象
+     * 2.其他情况（含scale为负）改用BigDecimal计算；NaN、无穷大抛出NumberFormatException
+     * </pre>
+     *
+     * @param v     double值
+     * @param scale 保留的小数位数
+     * @param mode  舍入模式
+     * @return double
+     */
+    public static double round(double v, int scale, RoundingMode mode) {
+        int s = scaleOf(v);
+        if (s >= 0 && scale >= 0) {
+            if (s <= scale) {
+                // 无需舍入；-0.0 经BigDecimal后为0.0
+                return v == 0 ? 0.0 : v;
+            }
+            long r = rescale(unscaledOf(v, s), s, scale, mode);
+            if (r != OVERFLOW) {
+                return toDouble(r, scale);
+            }
+        }
+        return new BigDecimal(Double.toString(v)).setScale(scale, mode).doubleValue();
+    }
+
+    /**
+     * <p>比较大小。</p>
+     *
+     * @return int 负数、0、正数；非标度值为 {@link #OVERFLOW} 或无法对齐标度时返回Integer.MIN_VALUE
+     */
+    public static int compare(long u1, int s1, long u2, int s2) {
+        if (u1 == OVERFLOW || u2 == OVERFLOW) {
+            return Integer.MIN_VALUE;
+        }
+        if (s1 != s2) {
+            int s = Math.max(s1, s2);
+            long a = scaleUp(u1, s - s1);
+            long b = scaleUp(u2, s - s2);
+            if (a == OVERFLOW || b == OVERFLOW) {
+                int sign = Long.compare(Long.signum(u1), Long.signum(u2));
+                return sign != 0 ? sign : Integer.MIN_VALUE;
+            }
+            return Long.compare(a, b);
+        }
+        return Long.compare(u1, u2);
+    }
+
+    /**
+     * 非标度值乘以10^k，溢出时返回 OVERFLOW
+     */
+    static long scaleUp(long unscaled, int k) {
+        if (k == 0 || unscaled == 0 || unscaled == OVERFLOW) {
+            return unscaled;
+        }
+        if (k >= LONG_TEN_POWERS.length) {
+            return OVERFLOW;
+        }
+        long limit = SCALE_UP_LIMITS[k];
+        if (unscaled > limit || unscaled < -limit) {
+            return OVERFLOW;
+        }
+        return unscaled * LONG_TEN_POWERS[k];
+    }
+
+    /**
+     * 按舍入模式决定截断商q是否向远离0的方向进1
+     *
+     * @param q    截断后的商
+     * @param sign 精确商的符号
+     * @param half 被舍弃部分与0.5的比较结果
+     * @param mode 舍入模式
+     */
+    static long round(long q, int sign, int half, RoundingMode mode) {
+        boolean increment;
+        switch (mode) {
+            case UP:
+                increment = true;
+                break;
+            case DOWN:
+                increment = false;
+                break;
+            case CEILING:
+                increment = sign > 0;
+                break;
+            case FLOOR:
+                increment = sign < 0;
+                break;
+            case HALF_UP:
+                increment = half >= 0;
+                break;
+            case HALF_DOWN:
+                increment = half > 0;
+                break;
+            case HALF_EVEN:
+                increment = half > 0 || (half == 0 && (q & 1) != 0);
+                break;
+            default:
+                throw new ArithmeticException("Rounding necessary");
+        }
+        return increment ? q + sign : q;
+    }
+}
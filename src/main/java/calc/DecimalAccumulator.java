@@ -0,0 +1,346 @@
+package calc;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * @PACKAGE : calc
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 21:00
+ * @Desc : 十进制聚合累加器
+ * <p>对一组十进制数求个数、和、平均值、最小值和最大值，结果与逐个 BigDecimal 运算完全一致（含标度；
+ * 加入double时只保证数值一致，见 {@link #add(double)}），
+ * 用于替代 total = MathExtendUtils.add(total, row) 这类逐行创建字符串和BigDecimal的写法。
+ * 和保存在long非标度值上，溢出部分转入BigDecimal，大部分数据不创建对象。</p>
+ * <pre>
+ * 1.非线程安全；可通过 {@link #merge(DecimalAccumulator)} 合并，适用于分段或并行计算
+ * 2.多线程共同累加时使用 {@link #perThread()}，每个线程累加到各自的累加器，最后合并
+ * 3.{@link #summarizing(Function)} 等方法返回Collector，可用于并行流
+ * </pre>
+ * <pre>
+ * DecimalAccumulator acc = rows.parallelStream().collect(DecimalAccumulator.summarizing(Row::getAmount));
+ * acc.getSum(); acc.getAverage(2, RoundingMode.HALF_UP);
+ * </pre>
+ * @History :
+ */
+public final class DecimalAccumulator {
+
+    /**
+     * 初始标度为0，空和为0，与从 "0" 开始逐个相加的结果标度一致
+     */
+    private final ExactSum sum = new ExactSum(0);
+
+    private long count;
+
+    private long minUnscaled;
+
+    private int minScale;
+
+    /**
+     * 最小值超出long时的值，否则为null
+     */
+    private BigDecimal minBig;
+
+    private long maxUnscaled;
+
+    private int maxScale;
+
+    private BigDecimal maxBig;
+
+    /**
+     * <p>加入一个十进制字符串，格式同 new BigDecimal(String)。</p>
+     *
+     * @param value 十进制字符串
+     * @return DecimalAccumulator
+     */
+    public DecimalAccumulator add(CharSequence value) {
+        long u = DecimalText.parse(value);
+        if (u != Decimal.OVERFLOW) {
+            accept(u, DecimalText.scaleOf(value), null);
+        } else {
+            add(new BigDecimal(value.toString()));
+        }
+        return this;
+    }
+
+    /**
+     * <p>加入 非标度值×10^-标度。</p>
+     *
+     * @param unscaled 非标度值
+     * @param scale    标度
+     * @return DecimalAccumulator
+     */
+    public DecimalAccumulator add(long unscaled, int scale) {
+        if (unscaled != Decimal.OVERFLOW) {
+            accept(unscaled, scale, null);
+        } else {
+            accept(Decimal.OVERFLOW, 0, BigDecimal.valueOf(unscaled, scale));
+        }
+        return this;
+    }
+
+    /**
+     * <p>加入double的最短十进制表示，数值与 new BigDecimal(Double.toString(value)) 相等（compareTo为0），
+     * 标度取能精确表示该值的最小小数位数，与Double.toString的写法无关：如1.0的标度为0而非1，
+     * 1.0E7为10000000而非1.0E+7。需要标度也一致时先转为BigDecimal再调用 {@link #add(BigDecimal)}。</p>
+     *
+     * @param value double值
+     * @return DecimalAccumulator
+     */
+    public DecimalAccumulator add(double value) {
+        int s = Decimal.scaleOf(value);
+        if (s >= 0) {
+            accept(Decimal.unscaledOf(value, s), s, null);
+        } else {
+            add(new BigDecimal(Double.toString(value)));
+        }
+        return this;
+    }
+
+    public DecimalAccumulator add(BigDecimal value) {
+        if (value.precision() <= 18) {
+            accept(value.unscaledValue().longValue(), value.scale(), null);
+        } else {
+            accept(Decimal.OVERFLOW, 0, value);
+        }
+        return this;
+    }
+
+    /**
+     * <p>合并另一个累加器，相当于把它的数据依次加入本累加器；最值相等时保留本累加器的值。</p>
+     *
+     * @param other 另一个累加器
+     * @return DecimalAccumulator
+     */
+    public DecimalAccumulator merge(DecimalAccumulator other) {
+        if (other.count == 0) {
+            return this;
+        }
+        sum.merge(other.sum);
+        if (count == 0 || compare(other.minUnscaled, other.minScale, other.minBig, minUnscaled, minScale, minBig) < 0) {
+            minUnscaled = other.minUnscaled;
+            minScale = other.minScale;
+            minBig = other.minBig;
+        }
+        if (count == 0 || compare(other.maxUnscaled, other.maxScale, other.maxBig, maxUnscaled, maxScale, maxBig) > 0) {
+            maxUnscaled = other.maxUnscaled;
+            maxScale = other.maxScale;
+            maxBig = other.maxBig;
+        }
+        count += other.count;
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * <p>和，无数据时为0。</p>
+     *
+     * @return BigDecimal
+     */
+    public BigDecimal getSum() {
+        return sum.toBigDecimal();
+    }
+
+    /**
+     * <p>平均值，无数据时为0。</p>
+     *
+     * @param scale 保留的小数位数
+     * @param mode  舍入模式
+     * @return BigDecimal
+     */
+    public BigDecimal getAverage(int scale, RoundingMode mode) {
+        if (count == 0) {
+            return BigDecimal.ZERO.setScale(scale);
+        }
+        return sum.toDecimal().divide(Decimal.valueOf(count, 0), scale, mode).toBigDecimal();
+    }
+
+    /**
+     * <p>最小值，无数据时为null；相等的值保留先加入的（标度可能不同）。</p>
+     *
+     * @return BigDecimal
+     */
+    public BigDecimal getMin() {
+        return count == 0 ? null : value(minUnscaled, minScale, minBig);
+    }
+
+    /**
+     * <p>最大值，无数据时为null；相等的值保留先加入的（标度可能不同）。</p>
+     *
+     * @return BigDecimal
+     */
+    public BigDecimal getMax() {
+        return count == 0 ? null : value(maxUnscaled, maxScale, maxBig);
+    }
+
+    @Override
+    public String toString() {
+        return "DecimalAccumulator{count=" + count + ", sum=" + getSum() + ", min=" + getMin() + ", max=" + getMax()
+                + "}";
+    }
+
+    /**
+     * @param big 超出long时的值，此时unscaled为 {@link Decimal#OVERFLOW}
+     */
+    private void accept(long unscaled, int scale, BigDecimal big) {
+        if (big == null) {
+            sum.add(unscaled, scale);
+        } else {
+            sum.add(big);
+        }
+        if (count == 0 || compare(unscaled, scale, big, minUnscaled, minScale, minBig) < 0) {
+            minUnscaled = unscaled;
+            minScale = scale;
+            minBig = big;
+        }
+        if (count == 0 || compare(unscaled, scale, big, maxUnscaled, maxScale, maxBig) > 0) {
+            maxUnscaled = unscaled;
+            maxScale = scale;
+            maxBig = big;
+        }
+        count++;
+    }
+
+    private static int compare(long u1, int s1, BigDecimal b1, long u2, int s2, BigDecimal b2) {
+        if (b1 == null && b2 == null) {
+            int c = Decimal.compare(u1, s1, u2, s2);
+            if (c != Integer.MIN_VALUE) {
+                return c;
+            }
+        }
+        return value(u1, s1, b1).compareTo(value(u2, s2, b2));
+    }
+
+    private static BigDecimal value(long unscaled, int scale, BigDecimal big) {
+        return big != null ? big : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    /**
+     * <p>十进制字符串的汇总Collector，支持并行流。</p>
+     *
+     * @param mapper 取值函数
+     * @return Collector
+     */
+    public static <T> Collector<T, DecimalAccumulator, DecimalAccumulator> summarizing(
+            Function<? super T, ? extends CharSequence> mapper) {
+        return Collector.of(DecimalAccumulator::new, (acc, t) -> acc.add(mapper.apply(t)), DecimalAccumulator::merge,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * <p>BigDecimal的汇总Collector，支持并行流。</p>
+     *
+     * @param mapper 取值函数
+     * @return Collector
+     */
+    public static <T> Collector<T, DecimalAccumulator, DecimalAccumulator> summarizingDecimal(
+            Function<? super T, BigDecimal> mapper) {
+        return Collector.of(DecimalAccumulator::new, (acc, t) -> acc.add(mapper.apply(t)), DecimalAccumulator::merge,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * <p>double的汇总Collector，按最短十进制表示精确累加，支持并行流；标度规则同 {@link #add(double)}。</p>
+     *
+     * @param mapper 取值函数
+     * @return Collector
+     */
+    public static <T> Collector<T, DecimalAccumulator, DecimalAccumulator> summarizingDouble(
+            ToDoubleFunction<? super T> mapper) {
+        return Collector.of(DecimalAccumulator::new, (acc, t) -> acc.add(mapper.applyAsDouble(t)),
+                DecimalAccumulator::merge, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * <p>定点数的汇总Collector，取值函数返回非标度值（如以分为单位的金额配合scale=2），支持并行流。</p>
+     *
+     * @param mapper 取非标度值函数
+     * @param scale  标度
+     * @return Collector
+     */
+    public static <T> Collector<T, DecimalAccumulator, DecimalAccumulator> summarizingLong(
+            ToLongFunction<? super T> mapper, int scale) {
+        return Collector.of(DecimalAccumulator::new, (acc, t) -> acc.add(mapper.applyAsLong(t), scale),
+                DecimalAccumulator::merge, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * <p>创建多线程共享的累加器。</p>
+     *
+     * @return PerThread
+     */
+    public static PerThread perThread() {
+        return new PerThread();
+    }
+
+    /**
+     * 多线程共享的累加器：每个线程首次累加时登记一个自己的 {@link DecimalAccumulator}，之后只累加到该累加器上，
+     * 线程间没有竞争；{@link #snapshot()} 合并所有线程的结果。通常在各线程结束后调用，
+     * 累加过程中调用得到的是调用时刻各线程已完成的部分。
+     */
+    public static final class PerThread {
+
+        private final Queue<DecimalAccumulator> cells = new ConcurrentLinkedQueue<>();
+
+        private final ThreadLocal<DecimalAccumulator> local = ThreadLocal.withInitial(() -> {
+            DecimalAccumulator cell = new DecimalAccumulator();
+            cells.add(cell);
+            return cell;
+        });
+
+        private PerThread() {
+        }
+
+        public void add(CharSequence value) {
+            DecimalAccumulator cell = local.get();
+            synchronized (cell) {
+                cell.add(value);
+            }
+        }
+
+        public void add(long unscaled, int scale) {
+            DecimalAccumulator cell = local.get();
+            synchronized (cell) {
+                cell.add(unscaled, scale);
+            }
+        }
+
+        public void add(double value) {
+            DecimalAccumulator cell = local.get();
+            synchronized (cell) {
+                cell.add(value);
+            }
+        }
+
+        public void add(BigDecimal value) {
+            DecimalAccumulator cell = local.get();
+            synchronized (cell) {
+                cell.add(value);
+            }
+        }
+
+        /**
+         * <p>合并各线程的累加器，返回新的累加器，不影响继续累加。</p>
+         *
+         * @return DecimalAccumulator
+         */
+        public DecimalAccumulator snapshot() {
+            DecimalAccumulator result = new DecimalAccumulator();
+            for (DecimalAccumulator cell : cells) {
+                synchronized (cell) {
+                    result.merge(cell);
+                }
+            }
+            return result;
+        }
+    }
+}
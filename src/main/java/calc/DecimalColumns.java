@@ -0,0 +1,332 @@
+package calc;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * @PACKAGE : calc
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 19:30
+ * @Desc : 按列批量十进制运算
+ * <p>{@link MathExtendUtils} 数组运算的计算核心。double[] 按最短十进制表示、long[] 按调用方给定的标度、
+ * BigDecimal[] 按原值参与运算，求和与加权求和在 {@link ExactSum} 中精确累加，逐元素运算尽量在long上完成，
+ * 溢出时该元素改走BigDecimal。数组较大时可选用fork/join并行，各段互不重叠，部分和最后合并，结果与顺序计算相同。</p>
+ * @History :
+ */
+final class DecimalColumns {
+
+    /**
+     * 并行模式下每个任务处理的最少元素个数，低于此值直接在当前线程计算
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    enum Op {
+        ADD, MULTIPLY, DIVIDE
+    }
+
+    private DecimalColumns() {
+    }
+
+    static double sum(double[] values, boolean parallel) {
+        return sum(new Column(values, null, null, 0), null, parallel).toDouble();
+    }
+
+    static Decimal sum(long[] values, int scale, boolean parallel) {
+        return sum(new Column(null, values, null, scale), null, parallel).toDecimal();
+    }
+
+    static BigDecimal sum(BigDecimal[] values, boolean parallel) {
+        return sum(new Column(null, null, values, 0), null, parallel).toBigDecimal();
+    }
+
+    static double weightedSum(double[] values, double[] weights, boolean parallel) {
+        checkLength(values.length, weights.length, weights.length);
+        return sum(new Column(values, null, null, 0), new Column(weights, null, null, 0), parallel).toDouble();
+    }
+
+    static Decimal weightedSum(long[] values, int scale, long[] weights, int weightScale, boolean parallel) {
+        checkLength(values.length, weights.length, weights.length);
+        return sum(new Column(null, values, null, scale), new Column(null, weights, null, weightScale), parallel)
+                .toDecimal();
+    }
+
+    static BigDecimal weightedSum(BigDecimal[] values, BigDecimal[] weights, boolean parallel) {
+        checkLength(values.length, weights.length, weights.length);
+        return sum(new Column(null, null, values, 0), new Column(null, null, weights, 0), parallel).toBigDecimal();
+    }
+
+    private static ExactSum sum(Column values, Column weights, boolean parallel) {
+        int n = values.length();
+        if (parallel && n > PARALLEL_THRESHOLD) {
+            return ForkJoinPool.commonPool().invoke(new SumTask(values, weights, 0, n));
+        }
+        return sumRange(values, weights, 0, n);
+    }
+
+    private static ExactSum sumRange(Column values, Column weights, int from, int to) {
+        ExactSum sum = values.longs == null ? new ExactSum()
+                : new ExactSum(weights == null ? values.scale : values.scale + weights.scale);
+        if (weights == null) {
+            if (values.doubles != null) {
+                for (int i = from; i < to; i++) {
+                    sum.add(values.doubles[i]);
+                }
+            } else if (values.longs != null) {
+                for (int i = from; i < to; i++) {
+                    sum.add(values.longs[i], values.scale);
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    sum.add(values.decimals[i]);
+                }
+            }
+        } else if (values.doubles != null) {
+            double[] v = values.doubles;
+            double[] w = weights.doubles;
+            for (int i = from; i < to; i++) {
+                int s1 = Decimal.scaleOf(v[i]);
+                int s2 = Decimal.scaleOf(w[i]);
+                if ((s1 | s2) >= 0) {
+                    sum.addProduct(Decimal.unscaledOf(v[i], s1), s1, Decimal.unscaledOf(w[i], s2), s2);
+                } else {
+                    sum.add(new BigDecimal(Double.toString(v[i])).multiply(new BigDecimal(Double.toString(w[i]))));
+                }
+            }
+        } else if (values.longs != null) {
+            long[] v = values.longs;
+            long[] w = weights.longs;
+            for (int i = from; i < to; i++) {
+                sum.addProduct(v[i], values.scale, w[i], weights.scale);
+            }
+        } else {
+            BigDecimal[] v = values.decimals;
+            BigDecimal[] w = weights.decimals;
+            for (int i = from; i < to; i++) {
+                sum.add(v[i].multiply(w[i]));
+            }
+        }
+        return sum;
+    }
+
+    static void apply(Op op, double[] a, double[] b, double[] out, int scale, RoundingMode mode, boolean parallel) {
+        checkLength(a.length, b.length, out.length);
+        run(new Operands(op, new Column(a, null, null, 0), new Column(b, null, null, 0),
+                new Column(out, null, null, scale), mode), parallel);
+    }
+
+    static void apply(Op op, long[] a, int aScale, long[] b, int bScale, long[] out, int outScale, RoundingMode mode,
+                      boolean parallel) {
+        checkLength(a.length, b.length, out.length);
+        run(new Operands(op, new Column(null, a, null, aScale), new Column(null, b, null, bScale),
+                new Column(null, out, null, outScale), mode), parallel);
+    }
+
+    static void apply(Op op, BigDecimal[] a, BigDecimal[] b, BigDecimal[] out, int scale, RoundingMode mode,
+                      boolean parallel) {
+        checkLength(a.length, b.length, out.length);
+        run(new Operands(op, new Column(null, null, a, 0), new Column(null, null, b, 0),
+                new Column(null, null, out, scale), mode), parallel);
+    }
+
+    private static void run(Operands operands, boolean parallel) {
+        int n = operands.a.length();
+        if (parallel && n > PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new ApplyTask(operands, 0, n));
+        } else {
+            applyRange(operands, 0, n);
+        }
+    }
+
+    private static void applyRange(Operands o, int from, int to) {
+        int scale = o.out.scale;
+        if (o.a.doubles != null) {
+            double[] a = o.a.doubles;
+            double[] b = o.b.doubles;
+            double[] out = o.out.doubles;
+            for (int i = from; i < to; i++) {
+                out[i] = apply(o.op, a[i], b[i], scale, o.mode);
+            }
+        } else if (o.a.longs != null) {
+            long[] a = o.a.longs;
+            long[] b = o.b.longs;
+            long[] out = o.out.longs;
+            for (int i = from; i < to; i++) {
+                out[i] = applyExact(o.op, a[i], o.a.scale, b[i], o.b.scale, scale, o.mode);
+            }
+        } else {
+            BigDecimal[] a = o.a.decimals;
+            BigDecimal[] b = o.b.decimals;
+            BigDecimal[] out = o.out.decimals;
+            for (int i = from; i < to; i++) {
+                out[i] = apply(o.op, a[i], b[i], scale, o.mode);
+            }
+        }
+    }
+
+    private static double apply(Op op, double a, double b, int scale, RoundingMode mode) {
+        int s1 = Decimal.scaleOf(a);
+        int s2 = Decimal.scaleOf(b);
+        if ((s1 | s2) >= 0 && (op != Op.DIVIDE || b != 0)) {
+            long r = apply(op, Decimal.unscaledOf(a, s1), s1, Decimal.unscaledOf(b, s2), s2, scale, mode);
+            if (r != Decimal.OVERFLOW) {
+                return Decimal.toDouble(r, scale);
+            }
+        }
+        return apply(op, new BigDecimal(Double.toString(a)), new BigDecimal(Double.toString(b)), scale, mode)
+                .doubleValue();
+    }
+
+    /**
+     * long上计算并舍入到scale，溢出时返回 OVERFLOW
+     */
+    private static long apply(Op op, long a, int aScale, long b, int bScale, int scale, RoundingMode mode) {
+        long r;
+        switch (op) {
+            case ADD:
+                r = Decimal.add(a, aScale, b, bScale);
+                return Decimal.rescale(r, Math.max(aScale, bScale), scale, mode);
+            case MULTIPLY:
+                r = Decimal.multiply(a, aScale, b, bScale);
+                return Decimal.rescale(r, aScale + bScale, scale, mode);
+            default:
+                return Decimal.divide(a, aScale, b, bScale, scale, mode);
+        }
+    }
+
+    private static long applyExact(Op op, long a, int aScale, long b, int bScale, int scale, RoundingMode mode) {
+        long r = apply(op, a, aScale, b, bScale, scale, mode);
+        if (r != Decimal.OVERFLOW) {
+            return r;
+        }
+        // 中间结果溢出时用BigDecimal重算，结果仍超出long时抛出ArithmeticException
+        return apply(op, BigDecimal.valueOf(a, aScale), BigDecimal.valueOf(b, bScale), scale, mode)
+                .unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal apply(Op op, BigDecimal a, BigDecimal b, int scale, RoundingMode mode) {
+        switch (op) {
+            case ADD:
+                return a.add(b).setScale(scale, mode);
+            case MULTIPLY:
+                return a.multiply(b).setScale(scale, mode);
+            default:
+                return a.divide(b, scale, mode);
+        }
+    }
+
+    private static void checkLength(int a, int b, int out) {
+        if (a != b || out < a) {
+            throw new IllegalArgumentException("The input arrays must have equal lengths and out must not be shorter");
+        }
+    }
+
+    /**
+     * 一列数据及其标度，三种数组中只有一种非空
+     */
+    private static final class Column {
+
+        private final double[] doubles;
+
+        private final long[] longs;
+
+        private final BigDecimal[] decimals;
+
+        private final int scale;
+
+        Column(double[] doubles, long[] longs, BigDecimal[] decimals, int scale) {
+            this.doubles = doubles;
+            this.longs = longs;
+            this.decimals = decimals;
+            this.scale = scale;
+        }
+
+        int length() {
+            return doubles != null ? doubles.length : longs != null ? longs.length : decimals.length;
+        }
+    }
+
+    private static final class Operands {
+
+        private final Op op;
+
+        private final Column a;
+
+        private final Column b;
+
+        private final Column out;
+
+        private final RoundingMode mode;
+
+        Operands(Op op, Column a, Column b, Column out, RoundingMode mode) {
+            this.op = op;
+            this.a = a;
+            this.b = b;
+            this.out = out;
+            this.mode = mode;
+        }
+    }
+
+    private static final class SumTask extends RecursiveTask<ExactSum> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Column values;
+
+        private final Column weights;
+
+        private final int from;
+
+        private final int to;
+
+        SumTask(Column values, Column weights, int from, int to) {
+            this.values = values;
+            this.weights = weights;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ExactSum compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return sumRange(values, weights, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            SumTask left = new SumTask(values, weights, from, mid);
+            left.fork();
+            ExactSum right = new SumTask(values, weights, mid, to).compute();
+            ExactSum sum = left.join();
+            sum.merge(right);
+            return sum;
+        }
+    }
+
+    private static final class ApplyTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Operands operands;
+
+        private final int from;
+
+        private final int to;
+
+        ApplyTask(Operands operands, int from, int to) {
+            this.operands = operands;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                applyRange(operands, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ApplyTask(operands, from, mid), new ApplyTask(operands, mid, to));
+        }
+    }
+}
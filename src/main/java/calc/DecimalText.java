@@ -0,0 +1,282 @@
+package calc;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * @PACKAGE : calc
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 20:10
+ * @Desc : 十进制字符串运算
+ * <p>把形如 -123.4500 的十进制字符串直接按字符解析为 long 非标度值和标度，在 {@link Decimal} 的静态运算上计算，
+ * 结果按 BigDecimal.toString() 的规则写入调用方提供的StringBuilder或char数组，中间不创建BigDecimal。</p>
+ * <pre>
+ * 1.支持可选正负号、整数部分、小数点和小数部分，与BigDecimal一致地接受 .5 和 5. 这样的写法
+ * 2.含指数、超过long范围或运算溢出时改用BigDecimal计算，非法输入同样由BigDecimal抛出NumberFormatException
+ * 3.输出与 BigDecimal.toString() 逐字符相同，需要科学计数法（调整指数小于-6或标度为负）时同样交由BigDecimal输出
+ * </pre>
+ * @History :
+ */
+public final class DecimalText {
+
+    /**
+     * 解析时非标度值乘10前的上限，等于此值时末位数字不能超过7
+     */
+    private static final long PARSE_LIMIT = Long.MAX_VALUE / 10;
+
+    /**
+     * 非科学计数法结果的最大长度：负号、"0."、小数点后最多24位
+     */
+    private static final int MAX_PLAIN_LENGTH = 27;
+
+    private static final long INT_CHUNK = 1000000000L;
+
+    /**
+     * {@link #append(long, int, StringBuilder)} 的字符缓冲，每个线程一个
+     */
+    private static final ThreadLocal<char[]> SCRATCH = ThreadLocal.withInitial(() -> new char[MAX_PLAIN_LENGTH]);
+
+    private DecimalText() {
+    }
+
+    /**
+     * <p>解析非标度值，即去掉小数点后的整数；无法快速解析时返回 {@link Decimal#OVERFLOW}。</p>
+     *
+     * @param text 十进制字符串
+     * @return long
+     */
+    public static long parse(CharSequence text) {
+        int len = text.length();
+        if (len == 0) {
+            return Decimal.OVERFLOW;
+        }
+        int i = 0;
+        boolean negative = false;
+        char c = text.charAt(0);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i = 1;
+        }
+        long value = 0;
+        int digits = 0;
+        boolean dot = false;
+        for (; i < len; i++) {
+            c = text.charAt(i);
+            if (c == '.') {
+                if (dot) {
+                    return Decimal.OVERFLOW;
+                }
+                dot = true;
+                continue;
+            }
+            int d = c - '0';
+            if (d < 0 || d > 9 || value >= PARSE_LIMIT && (value > PARSE_LIMIT || d > 7)) {
+                return Decimal.OVERFLOW;
+            }
+            value = value * 10 + d;
+            digits++;
+        }
+        if (digits == 0) {
+            return Decimal.OVERFLOW;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * <p>标度，即小数点后的位数；仅在 {@link #parse(CharSequence)} 解析成功后调用。</p>
+     *
+     * @param text 十进制字符串
+     * @return int
+     */
+    public static int scaleOf(CharSequence text) {
+        for (int i = text.length() - 1; i >= 0; i--) {
+            if (text.charAt(i) == '.') {
+                return text.length() - 1 - i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * <p>按 BigDecimal.toString() 的规则追加 非标度值×10^-标度。</p>
+     *
+     * @param unscaled 非标度值
+     * @param scale    标度
+     * @param sb       输出
+     */
+    public static void append(long unscaled, int scale, StringBuilder sb) {
+        if (!isPlain(unscaled, scale)) {
+            sb.append(BigDecimal.valueOf(unscaled, scale).toString());
+            return;
+        }
+        char[] buf = SCRATCH.get();
+        sb.append(buf, 0, write(unscaled, scale, buf, 0));
+    }
+
+    /**
+     * <p>按 BigDecimal.toString() 的规则写入 非标度值×10^-标度。</p>
+     * <pre>非科学计数法的结果最长为27个字符</pre>
+     *
+     * @param unscaled 非标度值
+     * @param scale    标度
+     * @param buf      输出缓冲
+     * @param offset   写入位置
+     * @return int 写入的字符数
+     */
+    public static int write(long unscaled, int scale, char[] buf, int offset) {
+        if (!isPlain(unscaled, scale)) {
+            String s = BigDecimal.valueOf(unscaled, scale).toString();
+            s.getChars(0, s.length(), buf, offset);
+            return s.length();
+        }
+        long v = Math.abs(unscaled);
+        long integer = v;
+        long fraction = 0;
+        if (scale >= Decimal.LONG_TEN_POWERS.length) {
+            integer = 0;
+            fraction = v;
+        } else if (scale > 0) {
+            long p = Decimal.LONG_TEN_POWERS[scale];
+            integer = v / p;
+            fraction = v - integer * p;
+        }
+        int pos = offset;
+        if (unscaled < 0) {
+            buf[pos++] = '-';
+        }
+        pos += precision(integer);
+        putDigits(integer, buf, offset + (unscaled < 0 ? 1 : 0), pos);
+        if (scale > 0) {
+            buf[pos++] = '.';
+            putDigits(fraction, buf, pos, pos + scale);
+            pos += scale;
+        }
+        return pos - offset;
+    }
+
+    /**
+     * 把v写入 buf[from, to)，位数不足时左侧补0；每次取9位在int上拆分，避免逐位的long除法
+     */
+    private static void putDigits(long v, char[] buf, int from, int to) {
+        int pos = to;
+        while (v > Integer.MAX_VALUE) {
+            int chunk = (int) (v % INT_CHUNK);
+            v /= INT_CHUNK;
+            for (int i = 0; i < 9; i++) {
+                buf[--pos] = (char) ('0' + chunk % 10);
+                chunk /= 10;
+            }
+        }
+        int x = (int) v;
+        while (pos > from) {
+            buf[--pos] = (char) ('0' + x % 10);
+            x /= 10;
+        }
+    }
+
+    /**
+     * <p>两数之和，同 new BigDecimal(a).add(new BigDecimal(b)).toString()。</p>
+     */
+    public static void add(CharSequence a, CharSequence b, StringBuilder out) {
+        long u1 = parse(a);
+        long u2 = parse(b);
+        if (u1 != Decimal.OVERFLOW && u2 != Decimal.OVERFLOW) {
+            int s1 = scaleOf(a);
+            int s2 = scaleOf(b);
+            long r = Decimal.add(u1, s1, u2, s2);
+            if (r != Decimal.OVERFLOW) {
+                append(r, Math.max(s1, s2), out);
+                return;
+            }
+        }
+        out.append(decimal(a).add(decimal(b)).toString());
+    }
+
+    /**
+     * <p>两数之差，同 new BigDecimal(a).subtract(new BigDecimal(b)).toString()。</p>
+     */
+    public static void subtract(CharSequence a, CharSequence b, StringBuilder out) {
+        long u1 = parse(a);
+        long u2 = parse(b);
+        if (u1 != Decimal.OVERFLOW && u2 != Decimal.OVERFLOW) {
+            int s1 = scaleOf(a);
+            int s2 = scaleOf(b);
+            long r = Decimal.subtract(u1, s1, u2, s2);
+            if (r != Decimal.OVERFLOW) {
+                append(r, Math.max(s1, s2), out);
+                return;
+            }
+        }
+        out.append(decimal(a).subtract(decimal(b)).toString());
+    }
+
+    /**
+     * <p>两数之积，同 new BigDecimal(a).multiply(new BigDecimal(b)).toString()。</p>
+     */
+    public static void multiply(CharSequence a, CharSequence b, StringBuilder out) {
+        long u1 = parse(a);
+        long u2 = parse(b);
+        if (u1 != Decimal.OVERFLOW && u2 != Decimal.OVERFLOW) {
+            int s1 = scaleOf(a);
+            int s2 = scaleOf(b);
+            long r = Decimal.multiply(u1, s1, u2, s2);
+            if (r != Decimal.OVERFLOW) {
+                append(r, s1 + s2, out);
+                return;
+            }
+        }
+        out.append(decimal(a).multiply(decimal(b)).toString());
+    }
+
+    /**
+     * <p>两数之商，同 new BigDecimal(a).divide(new BigDecimal(b), scale, mode).toString()。</p>
+     */
+    public static void divide(CharSequence a, CharSequence b, int scale, RoundingMode mode, StringBuilder out) {
+        long u1 = parse(a);
+        long u2 = parse(b);
+        // 除数为0时交由BigDecimal抛出同样的异常
+        if (u1 != Decimal.OVERFLOW && u2 != Decimal.OVERFLOW && u2 != 0) {
+            long r = Decimal.divide(u1, scaleOf(a), u2, scaleOf(b), scale, mode);
+            if (r != Decimal.OVERFLOW) {
+                append(r, scale, out);
+                return;
+            }
+        }
+        out.append(decimal(a).divide(decimal(b), scale, mode).toString());
+    }
+
+    /**
+     * <p>舍入到scale位小数，同 new BigDecimal(v).setScale(scale, mode).toString()。</p>
+     */
+    public static void round(CharSequence v, int scale, RoundingMode mode, StringBuilder out) {
+        long u = parse(v);
+        if (u != Decimal.OVERFLOW) {
+            long r = Decimal.rescale(u, scaleOf(v), scale, mode);
+            if (r != Decimal.OVERFLOW) {
+                append(r, scale, out);
+                return;
+            }
+        }
+        out.append(decimal(v).setScale(scale, mode).toString());
+    }
+
+    private static BigDecimal decimal(CharSequence text) {
+        return new BigDecimal(text.toString());
+    }
+
+    /**
+     * BigDecimal.toString() 不使用科学计数法的条件：标度非负且调整指数（精度-1-标度）不小于-6
+     */
+    private static boolean isPlain(long unscaled, int scale) {
+        return unscaled != Decimal.OVERFLOW && scale >= 0 && precision(unscaled) - 1 - scale >= -6;
+    }
+
+    private static int precision(long unscaled) {
+        long v = Math.abs(unscaled);
+        int p = 1;
+        while (p < Decimal.LONG_TEN_POWERS.length && v >= Decimal.LONG_TEN_POWERS[p]) {
+            p++;
+        }
+        return p;
+    }
+}
@@ -0,0 +1,150 @@
+package calc;
+
+import java.math.BigDecimal;
+
+/**
+ * @PACKAGE : calc
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 19:10
+ * @Desc : 精确累加器
+ * <p>在 long 非标度值上累加十进制数，标度随加数取最大值；long溢出时把当前累加值转入BigDecimal余项，
+ * 之后继续在long上累加，因此大部分加法不创建对象。结果与逐个 BigDecimal.add 完全一致（含标度）。
+ * 非线程安全，并行累加时每个线程各用一个，最后 {@link #merge(ExactSum)}。</p>
+ * @History :
+ */
+final class ExactSum {
+
+    /**
+     * 尚未加入任何数时的标度标志
+     */
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private long acc;
+
+    private int scale = EMPTY;
+
+    /**
+     * 溢出后转入的部分，未溢出时为null
+     */
+    private BigDecimal rest;
+
+    ExactSum() {
+    }
+
+    /**
+     * 以指定标度的0为初值，空和的标度即为该标度
+     */
+    ExactSum(int scale) {
+        this.scale = scale;
+    }
+
+    void add(long unscaled, int s) {
+        if (unscaled == Decimal.OVERFLOW) {
+            spill(BigDecimal.valueOf(unscaled, s));
+            return;
+        }
+        if (scale == EMPTY) {
+            acc = unscaled;
+            scale = s;
+            return;
+        }
+        if (s > scale) {
+            long up = Decimal.scaleUp(acc, s - scale);
+            if (up == Decimal.OVERFLOW) {
+                spillAcc();
+                up = 0;
+            }
+            acc = up;
+            scale = s;
+        }
+        long v = Decimal.scaleUp(unscaled, scale - s);
+        if (v == Decimal.OVERFLOW) {
+            spill(BigDecimal.valueOf(unscaled, s));
+            return;
+        }
+        long r = acc + v;
+        if (((acc ^ r) & (v ^ r)) < 0 || r == Decimal.OVERFLOW) {
+            spillAcc();
+            acc = v;
+        } else {
+            acc = r;
+        }
+    }
+
+    /**
+     * 加入double的最短十进制表示，数值与 new BigDecimal(Double.toString(v)) 相等，标度取能精确表示该值的最小小数位数
+     */
+    void add(double v) {
+        int s = Decimal.scaleOf(v);
+        if (s >= 0) {
+            add(Decimal.unscaledOf(v, s), s);
+        } else {
+            spill(new BigDecimal(Double.toString(v)));
+        }
+    }
+
+    void add(BigDecimal v) {
+        if (v.precision() <= 18) {
+            add(v.unscaledValue().longValue(), v.scale());
+        } else {
+            spill(v);
+        }
+    }
+
+    /**
+     * 加入两数之积 (u1×10^-s1)×(u2×10^-s2)
+     */
+    void addProduct(long u1, int s1, long u2, int s2) {
+        long p = Decimal.multiply(u1, s1, u2, s2);
+        if (p != Decimal.OVERFLOW) {
+            add(p, s1 + s2);
+        } else {
+            spill(BigDecimal.valueOf(u1, s1).multiply(BigDecimal.valueOf(u2, s2)));
+        }
+    }
+
+    void merge(ExactSum other) {
+        if (other.scale != EMPTY) {
+            add(other.acc, other.scale);
+        }
+        if (other.rest != null) {
+            spill(other.rest);
+        }
+    }
+
+    BigDecimal toBigDecimal() {
+        if (scale == EMPTY) {
+            return rest != null ? rest : BigDecimal.ZERO;
+        }
+        BigDecimal head = BigDecimal.valueOf(acc, scale);
+        return rest != null ? rest.add(head) : head;
+    }
+
+    Decimal toDecimal() {
+        if (rest == null) {
+            return scale == EMPTY ? Decimal.ZERO : Decimal.valueOf(acc, scale);
+        }
+        return Decimal.valueOf(toBigDecimal());
+    }
+
+    double toDouble() {
+        if (rest == null) {
+            return scale == EMPTY ? 0 : Decimal.toDouble(acc, scale);
+        }
+        return toBigDecimal().doubleValue();
+    }
+
+    private void spillAcc() {
+        spill(BigDecimal.valueOf(acc, scale));
+        acc = 0;
+    }
+
+    private void spill(BigDecimal v) {
+        rest = rest == null ? v : rest.add(v);
+        if (scale == EMPTY) {
+            // 之后在long上累加时沿用该标度，保证结果标度与BigDecimal一致
+            acc = 0;
+            scale = v.scale();
+        }
+    }
+}
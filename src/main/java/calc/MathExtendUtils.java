@@ -1,6 +1,7 @@
 package calc;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 /**
  * @PACKAGE : calc
@@ -13,6 +14,9 @@ public class MathExtendUtils {
     // 默认除法运算精度
     private static final int DEFAULT_DIV_SCALE = 10;
 
+    // 字符串运算的输出缓冲，每个线程一个
+    private static final ThreadLocal<StringBuilder> TEXT_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(32));
+
     /**
      * 提供精确的加法运算。
      *
@@ -21,6 +25,14 @@ public class MathExtendUtils {
      * @return 两个参数的和
      */
     public static double add(double v1, double v2) {
+        int s1 = Decimal.scaleOf(v1);
+        int s2 = Decimal.scaleOf(v2);
+        if ((s1 | s2) >= 0) {
+            long r = Decimal.add(Decimal.unscaledOf(v1, s1), s1, Decimal.unscaledOf(v2, s2), s2);
+            if (r != Decimal.OVERFLOW) {
+                return Decimal.toDouble(r, Math.max(s1, s2));
+            }
+        }
         BigDecimal b1 = new BigDecimal(Double.toString(v1));
         BigDecimal b2 = new BigDecimal(Double.toString(v2));
 
@@ -28,17 +40,16 @@ public class MathExtendUtils {
     }
 
     /**
-     * 提供精确的加法运算
+     * 提供精确的加法运算，逐行累加大量数据时使用 {@link DecimalAccumulator}
      *
      * @param v1
      * @param v2
      * @return 两个参数数学加和，以字符串格式返回
      */
     public static String add(String v1, String v2) {
-        BigDecimal b1 = new BigDecimal(v1);
-        BigDecimal b2 = new BigDecimal(v2);
-
-        return b1.add(b2).toString();
+        StringBuilder sb = textBuffer();
+        DecimalText.add(v1, v2, sb);
+        return sb.toString();
     }
 
     /**
@@ -49,6 +60,14 @@ public class MathExtendUtils {
      * @return 两个参数的差
      */
     public static double subtract(double v1, double v2) {
+        int s1 = Decimal.scaleOf(v1);
+        int s2 = Decimal.scaleOf(v2);
+        if ((s1 | s2) >= 0) {
+            long r = Decimal.subtract(Decimal.unscaledOf(v1, s1), s1, Decimal.unscaledOf(v2, s2), s2);
+            if (r != Decimal.OVERFLOW) {
+                return Decimal.toDouble(r, Math.max(s1, s2));
+            }
+        }
         BigDecimal b1 = new BigDecimal(Double.toString(v1));
         BigDecimal b2 = new BigDecimal(Double.toString(v2));
 
@@ -63,10 +82,9 @@ public class MathExtendUtils {
      * @return 两个参数数学差，以字符串格式返回
      */
     public static String subtract(String v1, String v2) {
-        BigDecimal b1 = new BigDecimal(v1);
-        BigDecimal b2 = new BigDecimal(v2);
-
-        return b1.subtract(b2).toString();
+        StringBuilder sb = textBuffer();
+        DecimalText.subtract(v1, v2, sb);
+        return sb.toString();
     }
 
     /**
@@ -77,6 +95,14 @@ public class MathExtendUtils {
      * @return 两个参数的积
      */
     public static double multiply(double v1, double v2) {
+        int s1 = Decimal.scaleOf(v1);
+        int s2 = Decimal.scaleOf(v2);
+        if ((s1 | s2) >= 0) {
+            long r = Decimal.multiply(Decimal.unscaledOf(v1, s1), s1, Decimal.unscaledOf(v2, s2), s2);
+            if (r != Decimal.OVERFLOW) {
+                return Decimal.toDouble(r, s1 + s2);
+            }
+        }
         BigDecimal b1 = new BigDecimal(Double.toString(v1));
         BigDecimal b2 = new BigDecimal(Double.toString(v2));
 
@@ -91,10 +117,9 @@ public class MathExtendUtils {
      * @return 两个参数的数学积，以字符串格式返回
      */
     public static String multiply(String v1, String v2) {
-        BigDecimal b1 = new BigDecimal(v1);
-        BigDecimal b2 = new BigDecimal(v2);
-
-        return b1.multiply(b2).toString();
+        StringBuilder sb = textBuffer();
+        DecimalText.multiply(v1, v2, sb);
+        return sb.toString();
     }
 
     /**
@@ -134,10 +159,33 @@ public class MathExtendUtils {
         if (scale < 0) {
             throw new IllegalArgumentException("The scale must be a positive integer or zero");
         }
+        return divide(v1, v2, policy(scale, round_mode, v1, v2));
+    }
+
+    /**
+     * 提供（相对）精确的除法运算，按舍入策略保留小数位数和舍入
+     *
+     * @param v1
+     * @param v2
+     * @param policy 舍入策略
+     * @return 两个参数的商
+     */
+    public static double divide(double v1, double v2, RoundingPolicy policy) {
+        int scale = policy.getScale();
+        RoundingMode mode = policy.getMode();
+        int s1 = Decimal.scaleOf(v1);
+        int s2 = Decimal.scaleOf(v2);
+        // 除数为0交由BigDecimal抛出同样的异常
+        if ((s1 | s2) >= 0 && v2 != 0 && mode != RoundingMode.UNNECESSARY && policy.getMathContext() == null) {
+            long r = Decimal.divide(Decimal.unscaledOf(v1, s1), s1, Decimal.unscaledOf(v2, s2), s2, scale, mode);
+            if (r != Decimal.OVERFLOW) {
+                return Decimal.toDouble(r, scale);
+            }
+        }
         BigDecimal b1 = new BigDecimal(Double.toString(v1));
         BigDecimal b2 = new BigDecimal(Double.toString(v2));
 
-        return b1.divide(b2, scale, round_mode).doubleValue();
+        return policy.divide(b1, b2).doubleValue();
     }
 
     /**
@@ -177,10 +225,24 @@ public class MathExtendUtils {
         if (scale < 0) {
             throw new IllegalArgumentException("The scale must be a positive integer or zero");
         }
-        BigDecimal b1 = new BigDecimal(v1);
-        BigDecimal b2 = new BigDecimal(v2);
+        return divide(v1, v2, policy(scale, round_mode, v1, v2));
+    }
 
-        return b1.divide(b2, scale, round_mode).toString();
+    /**
+     * 提供（相对）精确的除法运算，按舍入策略保留小数位数和舍入
+     *
+     * @param v1
+     * @param v2
+     * @param policy 舍入策略
+     * @return 两个参数的商，以字符串格式返回
+     */
+    public static String divide(String v1, String v2, RoundingPolicy policy) {
+        if (policy.getMathContext() != null) {
+            return policy.divide(new BigDecimal(v1), new BigDecimal(v2)).toString();
+        }
+        StringBuilder sb = textBuffer();
+        DecimalText.divide(v1, v2, policy.getScale(), policy.getMode(), sb);
+        return sb.toString();
     }
 
     /**
@@ -207,9 +269,18 @@ public class MathExtendUtils {
         if (scale < 0) {
             throw new IllegalArgumentException("The scale must be a positive integer or zero");
         }
-        BigDecimal b = new BigDecimal(Double.toString(v));
+        return round(v, policy(scale, round_mode, v, v));
+    }
 
-        return b.setScale(scale, round_mode).doubleValue();
+    /**
+     * 提供精确的小数位舍入处理，按舍入策略保留小数位数和舍入
+     *
+     * @param v      需要舍入的数字
+     * @param policy 舍入策略
+     * @return 舍入后的结果
+     */
+    public static double round(double v, RoundingPolicy policy) {
+        return policy.round(v);
     }
 
     /**
@@ -235,9 +306,49 @@ public class MathExtendUtils {
         if (scale < 0) {
             throw new IllegalArgumentException("The scale must be a positive integer or zero");
         }
-        BigDecimal b = new BigDecimal(v);
+        return round(v, policy(scale, round_mode, v, v));
+    }
 
-        return b.setScale(scale, round_mode).toString();
+    /**
+     * 提供精确的小数位舍入处理，按舍入策略保留小数位数和舍入
+     *
+     * @param v      需要舍入的数字
+     * @param policy 舍入策略
+     * @return 舍入后的结果，以字符串格式返回
+     */
+    public static String round(String v, RoundingPolicy policy) {
+        StringBuilder sb = textBuffer();
+        DecimalText.round(v, policy.getScale(), policy.getMode(), sb);
+        return sb.toString();
+    }
+
+    /**
+     * 舍入模式非法时先解析参数，非法数字与原实现一样优先抛出NumberFormatException
+     */
+    private static RoundingPolicy policy(int scale, int round_mode, String v1, String v2) {
+        try {
+            return RoundingPolicy.of(scale, round_mode);
+        } catch (IllegalArgumentException e) {
+            new BigDecimal(v1);
+            new BigDecimal(v2);
+            throw e;
+        }
+    }
+
+    private static RoundingPolicy policy(int scale, int round_mode, double v1, double v2) {
+        try {
+            return RoundingPolicy.of(scale, round_mode);
+        } catch (IllegalArgumentException e) {
+            new BigDecimal(Double.toString(v1));
+            new BigDecimal(Double.toString(v2));
+            throw e;
+        }
+    }
+
+    private static StringBuilder textBuffer() {
+        StringBuilder sb = TEXT_BUFFER.get();
+        sb.setLength(0);
+        return sb;
     }
 
     /**
@@ -264,9 +375,242 @@ public class MathExtendUtils {
         return b1.toString();
     }
 
+    /**
+     * 数组精确求和，按各元素的最短十进制表示（同 Double.toString）累加，最后一次舍入为double；
+     * 只需double精度时可使用更快的 {@link CompensatedSum}
+     *
+     * @param values
+     * @return 各元素之和
+     */
+    public static double sum(double[] values) {
+        return sum(values, false);
+    }
+
+    /**
+     * 数组精确求和，按各元素的最短十进制表示（同 Double.toString）累加，最后一次舍入为double
+     *
+     * @param values
+     * @param parallel 是否使用fork/join并行计算
+     * @return 各元素之和
+     */
+    public static double sum(double[] values, boolean parallel) {
+        return DecimalColumns.sum(values, parallel);
+    }
+
+    /**
+     * 定点数数组精确求和
+     *
+     * @param values   非标度值数组，实际值为 values[i]×10^-scale
+     * @param scale    标度
+     * @param parallel 是否使用fork/join并行计算
+     * @return 各元素之和，标度为scale
+     */
+    public static Decimal sum(long[] values, int scale, boolean parallel) {
+        return DecimalColumns.sum(values, scale, parallel);
+    }
+
+    /**
+     * BigDecimal数组精确求和，结果与逐个 add 相同
+     *
+     * @param values
+     * @param parallel 是否使用fork/join并行计算
+     * @return 各元素之和
+     */
+    public static BigDecimal sum(BigDecimal[] values, boolean parallel) {
+        return DecimalColumns.sum(values, parallel);
+    }
+
+    /**
+     * 加权求和 Σvalues[i]×weights[i]，精确累加后一次舍入为double
+     *
+     * @param values
+     * @param weights  权重，长度与values相同
+     * @param parallel 是否使用fork/join并行计算
+     * @return 加权和
+     */
+    public static double weightedSum(double[] values, double[] weights, boolean parallel) {
+        return DecimalColumns.weightedSum(values, weights, parallel);
+    }
+
+    /**
+     * 定点数加权求和 Σvalues[i]×weights[i]
+     *
+     * @param values      非标度值数组
+     * @param scale       values的标度
+     * @param weights     权重非标度值数组，长度与values相同
+     * @param weightScale weights的标度
+     * @param parallel    是否使用fork/join并行计算
+     * @return 加权和，标度为 scale + weightScale
+     */
+    public static Decimal weightedSum(long[] values, int scale, long[] weights, int weightScale, boolean parallel) {
+        return DecimalColumns.weightedSum(values, scale, weights, weightScale, parallel);
+    }
+
+    /**
+     * BigDecimal加权求和 Σvalues[i]×weights[i]
+     *
+     * @param values
+     * @param weights  权重，长度与values相同
+     * @param parallel 是否使用fork/join并行计算
+     * @return 加权和
+     */
+    public static BigDecimal weightedSum(BigDecimal[] values, BigDecimal[] weights, boolean parallel) {
+        return DecimalColumns.weightedSum(values, weights, parallel);
+    }
+
+    /**
+     * 逐元素精确加法，out[i] = a[i]+b[i]，结果保留scale位小数
+     *
+     * @param a
+     * @param b        长度与a相同
+     * @param out      结果，长度不小于a
+     * @param scale    结果保留的小数位数
+     * @param mode     舍入模式
+     * @param parallel 是否使用fork/join并行计算
+     */
+    public static void add(double[] a, double[] b, double[] out, int scale, RoundingMode mode, boolean parallel) {
+        DecimalColumns.apply(DecimalColumns.Op.ADD, a, b, out, scale, mode, parallel);
+    }
+
+    /**
+     * 逐元素精确乘法，out[i] = a[i]×b[i]，结果保留scale位小数
+     *
+     * @param a
+     * @param b        长度与a相同
+     * @param out      结果，长度不小于a
+     * @param scale    结果保留的小数位数
+     * @param mode     舍入模式
+     * @param parallel 是否使用fork/join并行计算
+     */
+    public static void multiply(double[] a, double[] b, double[] out, int scale, RoundingMode mode,
+                                boolean parallel) {
+        DecimalColumns.apply(DecimalColumns.Op.MULTIPLY, a, b, out, scale, mode, parallel);
+    }
+
+    /**
+     * 逐元素除法，out[i] = a[i]/b[i]，结果保留scale位小数，同 divide(double, double, int, int)
+     *
+     * @param a
+     * @param b        长度与a相同
+     * @param out      结果，长度不小于a
+     * @param scale    结果保留的小数位数
+     * @param mode     舍入模式
+     * @param parallel 是否使用fork/join并行计算
+     */
+    public static void divide(double[] a, double[] b, double[] out, int scale, RoundingMode mode, boolean parallel) {
+        DecimalColumns.apply(DecimalColumns.Op.DIVIDE, a, b, out, scale, mode, parallel);
+    }
+
+    /**
+     * 定点数逐元素加法，结果非标度值超出long范围时抛出ArithmeticException
+     *
+     * @param a        非标度值数组
+     * @param aScale   a的标度
+     * @param b        非标度值数组，长度与a相同
+     * @param bScale   b的标度
+     * @param out      结果非标度值，长度不小于a
+     * @param outScale 结果标度
+     * @param mode     舍入模式
+     * @param parallel 是否使用fork/join并行计算
+     */
+    public static void add(long[] a, int aScale, long[] b, int bScale, long[] out, int outScale, RoundingMode mode,
+                           boolean parallel) {
+        DecimalColumns.apply(DecimalColumns.Op.ADD, a, aScale, b, bScale, out, outScale, mode, parallel);
+    }
+
+    /**
+     * 定点数逐元素乘法，结果非标度值超出long范围时抛出ArithmeticException
+     *
+     * @param a        非标度值数组
+     * @param aScale   a的标度
+     * @param b        非标度值数组，长度与a相同
+     * @param bScale   b的标度
+     * @param out      结果非标度值，长度不小于a
+     * @param outScale 结果标度
+     * @param mode     舍入模式
+     * @param parallel 是否使用fork/join并行计算
+     */
+    public static void multiply(long[] a, int aScale, long[] b, int bScale, long[] out, int outScale,
+                                RoundingMode mode, boolean parallel) {
+        DecimalColumns.apply(DecimalColumns.Op.MULTIPLY, a, aScale, b, bScale, out, outScale, mode, parallel);
+    }
+
+    /**
+     * 定点数逐元素除法，结果非标度值超出long范围时抛出ArithmeticException
+     *
+     * @param a        非标度值数组
+     * @param aScale   a的标度
+     * @param b        非标度值数组，长度与a相同
+     * @param bScale   b的标度
+     * @param out      结果非标度值，长度不小于a
+     * @param outScale 结果标度
+     * @param mode     舍入模式
+     * @param parallel 是否使用fork/join并行计算
+     */
+    public static void divide(long[] a, int aScale, long[] b, int bScale, long[] out, int outScale,
+                              RoundingMode mode, boolean parallel) {
+        DecimalColumns.apply(DecimalColumns.Op.DIVIDE, a, aScale, b, bScale, out, outScale, mode, parallel);
+    }
+
+    /**
+     * BigDecimal逐元素加法，out[i] = a[i].add(b[i]).setScale(scale, mode)
+     *
+     * @param a
+     * @param b        长度与a相同
+     * @param out      结果，长度不小于a
+     * @param scale    结果保留的小数位数
+     * @param mode     舍入模式
+     * @param parallel 是否使用fork/join并行计算
+     */
+    public static void add(BigDecimal[] a, BigDecimal[] b, BigDecimal[] out, int scale, RoundingMode mode,
+                           boolean parallel) {
+        DecimalColumns.apply(DecimalColumns.Op.ADD, a, b, out, scale, mode, parallel);
+    }
+
+    /**
+     * BigDecimal逐元素乘法，out[i] = a[i].multiply(b[i]).setScale(scale, mode)
+     *
+     * @param a
+     * @param b        长度与a相同
+     * @param out      结果，长度不小于a
+     * @param scale    结果保留的小数位数
+     * @param mode     舍入模式
+     * @param parallel 是否使用fork/join并行计算
+     */
+    public static void multiply(BigDecimal[] a, BigDecimal[] b, BigDecimal[] out, int scale, RoundingMode mode,
+                                boolean parallel) {
+        DecimalColumns.apply(DecimalColumns.Op.MULTIPLY, a, b, out, scale, mode, parallel);
+    }
+
+    /**
+     * BigDecimal逐元素除法，out[i] = a[i].divide(b[i], scale, mode)
+     *
+     * @param a
+     * @param b        长度与a相同
+     * @param out      结果，长度不小于a
+     * @param scale    结果保留的小数位数
+     * @param mode     舍入模式
+     * @param parallel 是否使用fork/join并行计算
+     */
+    public static void divide(BigDecimal[] a, BigDecimal[] b, BigDecimal[] out, int scale, RoundingMode mode,
+                              boolean parallel) {
+        DecimalColumns.apply(DecimalColumns.Op.DIVIDE, a, b, out, scale, mode, parallel);
+    }
+
+    /**
+     * 计算租期，两数之积按 {@link #getLeaseTermCount(double, double)} 的规则取整，以字符串格式返回
+     *
+     * @param v1
+     * @param v2
+     * @return 租期
+     */
     public static String getLeaseTerm(Object v1, Object v2) {
         String ret_val = "0";
-        Double num_tmp = Double.parseDouble(v1.toString()) * Double.parseDouble(v2.toString());
+        double num_tmp = Double.parseDouble(v1.toString()) * Double.parseDouble(v2.toString());
+        int term = leaseTerm(num_tmp);
+        if (term != Integer.MIN_VALUE) {
+            return String.valueOf(term);
+        }
         // 判断是否需要进位 12.0 11.999
         if (String.valueOf(num_tmp).lastIndexOf(".0") > 0) {
             ret_val = String
@@ -282,4 +626,38 @@ public class MathExtendUtils {
 
         return ret_val;
     }
+
+    /**
+     * 计算租期，如 年限×每年期数：两数之积的整数部分，最短十进制表示（同 Double.toString）的第一位小数不为0时进1，
+     * 如 12.0、12.05 为12，11.999、12.5 为12和13
+     *
+     * @param v1
+     * @param v2
+     * @return 租期
+     */
+    public static int getLeaseTermCount(double v1, double v2) {
+        int term = leaseTerm(v1 * v2);
+        return term != Integer.MIN_VALUE ? term : Integer.parseInt(getLeaseTerm(v1, v2));
+    }
+
+    /**
+     * 不经字符串计算租期；Double.toString 为科学计数法（绝对值小于10^-3或不小于10^7）等无法直接计算时返回Integer.MIN_VALUE
+     */
+    private static int leaseTerm(double num) {
+        double abs = Math.abs(num);
+        if (abs != 0 && (abs < 1e-3 || abs >= 1e7)) {
+            return Integer.MIN_VALUE;
+        }
+        int s = Decimal.scaleOf(num);
+        if (s < 0 || s >= Decimal.LONG_TEN_POWERS.length) {
+            return Integer.MIN_VALUE;
+        }
+        long u = Decimal.unscaledOf(num, s);
+        if (s == 0) {
+            return (int) u;
+        }
+        int integer = (int) (u / Decimal.LONG_TEN_POWERS[s]);
+        long firstDigit = Math.abs(u) / Decimal.LONG_TEN_POWERS[s - 1] % 10;
+        return firstDigit == 0 ? integer : integer + 1;
+    }
 }
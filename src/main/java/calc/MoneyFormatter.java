@@ -0,0 +1,267 @@
+package calc;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * @PACKAGE : calc
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 23:20
+ * @Desc : 定长小数的金额格式化
+ * <p>针对 #,##0.00、###0.00、###0.0000、#,##0.0000 这类只有分组和固定小数位的模式，直接从long非标度值
+ * 逐位写出数字、分组符和小数点，写入调用方提供的char数组、StringBuilder或Appendable，不创建BigDecimal和DecimalFormat。
+ * 输出与同模式的 DecimalFormat.format(BigDecimal) 逐字符相同：</p>
+ * <pre>
+ * 1.按HALF_EVEN舍入到固定小数位
+ * 2.负数舍入为0时仍保留负号，如 -0.001 输出 -0.00
+ * 3.分组符、小数点、负号和数字0取自创建时Locale的DecimalFormatSymbols
+ * 4.超出long范围或小数位过多而无法在long上舍入时，改用缓存的DecimalFormat输出
+ * </pre>
+ * <p>不可变，可在线程间共享。</p>
+ * @History :
+ */
+public final class MoneyFormatter {
+
+    /**
+     * 非标度值不超过19位，加上负号、分组符、小数点和小数位后的最大长度留有余量
+     */
+    private static final int MAX_LENGTH = 64;
+
+    private static final ThreadLocal<char[]> SCRATCH = ThreadLocal.withInitial(() -> new char[MAX_LENGTH]);
+
+    private final String pattern;
+
+    private final Locale locale;
+
+    private final int fractionDigits;
+
+    private final int minIntegerDigits;
+
+    /**
+     * 分组位数，0表示不分组
+     */
+    private final int groupingSize;
+
+    private final char zeroDigit;
+
+    private final char groupingSeparator;
+
+    private final char decimalSeparator;
+
+    private final char minusSign;
+
+    private MoneyFormatter(String pattern, Locale locale) {
+        int dot = pattern.indexOf('.');
+        String integerPart = dot < 0 ? pattern : pattern.substring(0, dot);
+        String fractionPart = dot < 0 ? "" : pattern.substring(dot + 1);
+        int zeros = 0;
+        int lastComma = -1;
+        for (int i = 0; i < integerPart.length(); i++) {
+            char c = integerPart.charAt(i);
+            if (c == '0') {
+                zeros++;
+            } else if (c == ',') {
+                lastComma = i;
+            } else if (c != '#' || zeros > 0) {
+                throw new IllegalArgumentException("Unsupported pattern: " + pattern);
+            }
+        }
+        for (int i = 0; i < fractionPart.length(); i++) {
+            if (fractionPart.charAt(i) != '0') {
+                throw new IllegalArgumentException("Unsupported pattern: " + pattern);
+            }
+        }
+        int grouping = lastComma < 0 ? 0 : integerPart.length() - 1 - lastComma;
+        if (zeros == 0 || (dot >= 0 && fractionPart.isEmpty()) || lastComma >= 0 && grouping == 0
+                || fractionPart.length() >= Decimal.LONG_TEN_POWERS.length) {
+            throw new IllegalArgumentException("Unsupported pattern: " + pattern);
+        }
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.pattern = pattern;
+        this.locale = locale;
+        this.fractionDigits = fractionPart.length();
+        this.minIntegerDigits = zeros;
+        this.groupingSize = grouping;
+        this.zeroDigit = symbols.getZeroDigit();
+        this.groupingSeparator = symbols.getGroupingSeparator();
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.minusSign = symbols.getMinusSign();
+    }
+
+    /**
+     * <p>默认Locale下指定模式的格式化器。</p>
+     *
+     * @param pattern 模式串，只能由#、分组符、0和固定位数的小数组成，如 #,##0.00
+     * @return MoneyFormatter
+     */
+    public static MoneyFormatter of(String pattern) {
+        return of(pattern, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    public static MoneyFormatter of(String pattern, Locale locale) {
+        return new MoneyFormatter(pattern, locale);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * <p>把 非标度值×10^-标度 格式化写入char数组。</p>
+     *
+     * @param unscaled 非标度值
+     * @param scale    标度
+     * @param buf      输出缓冲，非long范围时所需长度取决于数值
+     * @param offset   写入位置
+     * @return int 写入的字符数
+     */
+    public int format(long unscaled, int scale, char[] buf, int offset) {
+        long r = Decimal.rescale(unscaled, scale, fractionDigits, RoundingMode.HALF_EVEN);
+        if (r == Decimal.OVERFLOW) {
+            String s = fallback(BigDecimal.valueOf(unscaled, scale));
+            s.getChars(0, s.length(), buf, offset);
+            return s.length();
+        }
+        return write(r, unscaled < 0, buf, offset);
+    }
+
+    public void format(long unscaled, int scale, StringBuilder sb) {
+        char[] buf = SCRATCH.get();
+        long r = Decimal.rescale(unscaled, scale, fractionDigits, RoundingMode.HALF_EVEN);
+        if (r == Decimal.OVERFLOW) {
+            sb.append(fallback(BigDecimal.valueOf(unscaled, scale)));
+        } else {
+            sb.append(buf, 0, write(r, unscaled < 0, buf, 0));
+        }
+    }
+
+    /**
+     * <p>把 非标度值×10^-标度 格式化写入Appendable。</p>
+     *
+     * @param unscaled 非标度值
+     * @param scale    标度
+     * @param out      输出
+     * @throws IOException
+     */
+    public void format(long unscaled, int scale, Appendable out) throws IOException {
+        if (out instanceof StringBuilder) {
+            format(unscaled, scale, (StringBuilder) out);
+            return;
+        }
+        char[] buf = SCRATCH.get();
+        int n = format(unscaled, scale, buf, 0);
+        for (int i = 0; i < n; i++) {
+            out.append(buf[i]);
+        }
+    }
+
+    /**
+     * <p>格式化十进制字符串，同 DecimalFormat.format(new BigDecimal(text))，非法数字抛出NumberFormatException。</p>
+     *
+     * @param text 十进制字符串
+     * @return String
+     */
+    public String format(CharSequence text) {
+        long u = DecimalText.parse(text);
+        if (u == Decimal.OVERFLOW) {
+            return fallback(new BigDecimal(text.toString()));
+        }
+        char[] buf = SCRATCH.get();
+        return new String(buf, 0, format(u, DecimalText.scaleOf(text), buf, 0));
+    }
+
+    /**
+     * <p>格式化double的最短十进制表示，同 DecimalFormat.format(new BigDecimal(String.valueOf(v)))。</p>
+     *
+     * @param v double值
+     * @return String
+     */
+    public String format(double v) {
+        int s = Decimal.scaleOf(v);
+        if (s < 0) {
+            return fallback(new BigDecimal(Double.toString(v)));
+        }
+        char[] buf = SCRATCH.get();
+        return new String(buf, 0, format(Decimal.unscaledOf(v, s), s, buf, 0));
+    }
+
+    public String format(BigDecimal v) {
+        if (v.precision() > 18) {
+            return fallback(v);
+        }
+        char[] buf = SCRATCH.get();
+        return new String(buf, 0, format(v.unscaledValue().longValue(), v.scale(), buf, 0));
+    }
+
+    private String fallback(BigDecimal v) {
+        return NumberFormatCache.getDefault().get(pattern, locale).format(v);
+    }
+
+    /**
+     * 写出已舍入到fractionDigits位小数的非标度值
+     */
+    private int write(long rounded, boolean negative, char[] buf, int offset) {
+        long v = Math.abs(rounded);
+        long integer = v;
+        long fraction = 0;
+        if (fractionDigits > 0) {
+            long p = Decimal.LONG_TEN_POWERS[fractionDigits];
+            integer = v / p;
+            fraction = v - integer * p;
+        }
+        int integerDigits = Math.max(digits(integer), minIntegerDigits);
+        int separators = groupingSize > 0 ? (integerDigits - 1) / groupingSize : 0;
+        int length = (negative ? 1 : 0) + integerDigits + separators + (fractionDigits > 0 ? fractionDigits + 1 : 0);
+        int pos = putDigits(fraction, fractionDigits, 0, buf, offset + length);
+        if (fractionDigits > 0) {
+            buf[--pos] = decimalSeparator;
+        }
+        pos = putDigits(integer, integerDigits, groupingSize, buf, pos);
+        if (negative) {
+            buf[--pos] = minusSign;
+        }
+        return length;
+    }
+
+    /**
+     * 从pos向左写出v的末count位数字，每grouping位插入分组符；值落入int范围后改用int除法
+     */
+    private int putDigits(long v, int count, int grouping, char[] buf, int pos) {
+        int group = 0;
+        for (int i = 0; i < count; i++) {
+            if (group == grouping && grouping > 0) {
+                buf[--pos] = groupingSeparator;
+                group = 0;
+            }
+            int digit;
+            if (v > Integer.MAX_VALUE) {
+                long q = v / 10;
+                digit = (int) (v - q * 10);
+                v = q;
+            } else {
+                int x = (int) v;
+                int q = x / 10;
+                digit = x - q * 10;
+                v = q;
+            }
+            buf[--pos] = (char) (zeroDigit + digit);
+            group++;
+        }
+        return pos;
+    }
+
+    private static int digits(long v) {
+        int n = 1;
+        while (n < Decimal.LONG_TEN_POWERS.length && v >= Decimal.LONG_TEN_POWERS[n]) {
+            n++;
+        }
+        return n;
+    }
+}
@@ -1,6 +1,8 @@
 package calc;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
 
 /**
  * @PACKAGE : calc
@@ -10,6 +12,47 @@ import java.math.BigDecimal;
  * @History :
  */
 public class MoneyUtils {
+    // 固定模式的格式化器，不经BigDecimal和DecimalFormat，输出与 new DecimalFormat(模式).format 相同；
+    // 与旧版每次新建DecimalFormat一致，按调用时的默认Locale格式化
+    private static final LocaleFormatter GROUPED_TWO = new LocaleFormatter("#,##0.00");
+
+    private static final LocaleFormatter PLAIN_TWO = new LocaleFormatter("###0.00");
+
+    private static final LocaleFormatter PLAIN_FOUR = new LocaleFormatter("###0.0000");
+
+    private static final LocaleFormatter PLAIN_SIX = new LocaleFormatter("###0.000000");
+
+    private static final LocaleFormatter PLAIN_TWELVE = new LocaleFormatter("###0.000000000000");
+
+    private static final LocaleFormatter PLAIN_ZERO = new LocaleFormatter("###0");
+
+    private static final LocaleFormatter GROUPED_FOUR = new LocaleFormatter("#,##0.0000");
+
+    /**
+     * 按当前默认Locale取格式化器，默认Locale未变时直接返回上次创建的
+     */
+    private static final class LocaleFormatter {
+
+        private final String pattern;
+
+        private volatile MoneyFormatter formatter;
+
+        LocaleFormatter(String pattern) {
+            this.pattern = pattern;
+            this.formatter = MoneyFormatter.of(pattern);
+        }
+
+        String format(CharSequence text) {
+            Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+            MoneyFormatter f = formatter;
+            if (!f.getLocale().equals(locale)) {
+                f = MoneyFormatter.of(pattern, locale);
+                formatter = f;
+            }
+            return f.format(text);
+        }
+    }
+
     /**
      * <p>将空串或者null值置为0返回。</p>
      * @author sea
@@ -42,7 +85,7 @@ public class MoneyUtils {
             if ((temp_num == null) || (temp_num.equals(""))) {
                 temp_num = "";
             } else {
-                java.text.DecimalFormat ft = new java.text.DecimalFormat(style);
+                CachedNumberFormat ft = NumberFormatCache.getDefault().get(style);
                 BigDecimal bd = new BigDecimal(temp_num);
                 temp_num = ft.format(bd);
 
@@ -65,10 +108,7 @@ public class MoneyUtils {
             if ((temp_num == null) || (temp_num.equals(""))) {
                 temp_num = "";
             } else {
-                java.text.DecimalFormat ft = new java.text.DecimalFormat("#,##0.00");
-                //java.text.DecimalFormat ft =  new java.text.DecimalFormat(style);
-                BigDecimal bd = new BigDecimal(temp_num);
-                temp_num = ft.format(bd);
+                temp_num = GROUPED_TWO.format(temp_num);
 
             }
             return temp_num;
@@ -96,10 +136,7 @@ public class MoneyUtils {
                 if ((temp_num == null) || (temp_num.equals(""))) {
                     temp_num = "";
                 } else {
-                    java.text.DecimalFormat ft = new java.text.DecimalFormat("#,##0.00");
-                    //java.text.DecimalFormat ft =  new java.text.DecimalFormat(style);
-                    BigDecimal bd = new BigDecimal(temp_num);
-                    temp_num = ft.format(bd);
+                    temp_num = GROUPED_TWO.format(temp_num);
                 }
                 return temp_num;
             }else{
@@ -121,10 +158,7 @@ public class MoneyUtils {
             if ((temp_num == null) || (temp_num.equals(""))) {
                 temp_num = "";
             } else {
-                java.text.DecimalFormat ft = new java.text.DecimalFormat("###0.00");
-                //java.text.DecimalFormat ft =  new java.text.DecimalFormat(style);
-                BigDecimal bd = new BigDecimal(temp_num);
-                temp_num = ft.format(bd);
+                temp_num = PLAIN_TWO.format(temp_num);
 
             }
             return temp_num;
@@ -144,10 +178,7 @@ public class MoneyUtils {
             if ((temp_num == null) || (temp_num.equals(""))) {
                 temp_num = "";
             } else {
-                java.text.DecimalFormat ft = new java.text.DecimalFormat("###0.0000");
-                //java.text.DecimalFormat ft =  new java.text.DecimalFormat(style);
-                BigDecimal bd = new BigDecimal(temp_num);
-                temp_num = ft.format(bd);
+                temp_num = PLAIN_FOUR.format(temp_num);
 
             }
             return temp_num;
@@ -167,10 +198,7 @@ public class MoneyUtils {
             if ((temp_num == null) || (temp_num.equals(""))) {
                 temp_num = "";
             } else {
-                java.text.DecimalFormat ft = new java.text.DecimalFormat( "###0.000000");
-                //java.text.DecimalFormat ft =  new java.text.DecimalFormat(style);
-                BigDecimal bd = new BigDecimal(temp_num);
-                temp_num = ft.format(bd);
+                temp_num = PLAIN_SIX.format(temp_num);
 
             }
             return temp_num;
@@ -184,10 +212,7 @@ public class MoneyUtils {
             if ((temp_num == null) || (temp_num.equals(""))) {
                 temp_num = "";
             } else {
-                java.text.DecimalFormat ft = new java.text.DecimalFormat("###0.000000000000");
-                //java.text.DecimalFormat ft =  new java.text.DecimalFormat(style);
-                BigDecimal bd = new BigDecimal(temp_num);
-                temp_num = ft.format(bd);
+                temp_num = PLAIN_TWELVE.format(temp_num);
 
             }
             return temp_num;
@@ -207,10 +232,7 @@ public class MoneyUtils {
             if ((temp_num == null) || (temp_num.equals(""))) {
                 temp_num = "";
             } else {
-                java.text.DecimalFormat ft = new java.text.DecimalFormat("###0");
-                //java.text.DecimalFormat ft =  new java.text.DecimalFormat(style);
-                BigDecimal bd = new BigDecimal(temp_num);
-                temp_num = ft.format(bd);
+                temp_num = PLAIN_ZERO.format(temp_num);
 
             }
             return temp_num;
@@ -225,10 +247,7 @@ public class MoneyUtils {
             if ((temp_num == null) || (temp_num.equals(""))) {
                 temp_num = "";
             } else {
-                java.text.DecimalFormat ft = new java.text.DecimalFormat("###0");
-                //java.text.DecimalFormat ft =  new java.text.DecimalFormat(style);
-                BigDecimal bd = new BigDecimal(temp_num);
-                temp_num = ft.format(bd);
+                temp_num = PLAIN_ZERO.format(temp_num);
 
             }
             return temp_num;
@@ -250,11 +269,7 @@ public class MoneyUtils {
             if ((temp_num == null) || (temp_num.equals(""))) {
                 temp_num = "";
             } else {
-                java.text.DecimalFormat ft = new java.text.DecimalFormat(
-                        "#,##0.0000");
-                // java.text.DecimalFormat ft =  new java.text.DecimalFormat(style);
-                BigDecimal bd = new BigDecimal(temp_num);
-                temp_num = ft.format(bd);
+                temp_num = GROUPED_FOUR.format(temp_num);
 
             }
             return temp_num;
@@ -276,11 +291,7 @@ public class MoneyUtils {
             if ((temp_num == null) || (temp_num.equals(""))) {
                 temp_num = "";
             } else {
-                java.text.DecimalFormat ft = new java.text.DecimalFormat(
-                        "#,##0.00");
-                // java.text.DecimalFormat ft =  new java.text.DecimalFormat(style);
-                BigDecimal bd = new BigDecimal(temp_num);
-                temp_num = ft.format(bd);
+                temp_num = GROUPED_TWO.format(temp_num);
 
             }
             return temp_num;
@@ -324,13 +335,17 @@ public class MoneyUtils {
         return "";
     }
 
-    public static  double rnddouble(double dbl, int scale) //double四舍五入处理 scale--精度
+    /**
+     * <p>double四舍五入处理，按最短十进制表示舍入，与 MathExtendUtils.round(dbl, scale, ROUND_HALF_UP) 一致，
+     * 如 rnddouble(2.675, 2) 为 2.68。</p>
+     * @param dbl
+     * @param scale 精度
+     * @return
+     */
+    public static  double rnddouble(double dbl, int scale)
     {
         try {
-            BigDecimal temp_bd = new BigDecimal(dbl);
-            double newdbl = temp_bd.setScale(scale, BigDecimal.ROUND_HALF_UP)
-                    .doubleValue();
-            return newdbl;
+            return Decimal.round(dbl, scale, RoundingMode.HALF_UP);
         } catch (Exception e) {
 
         }
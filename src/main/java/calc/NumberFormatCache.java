@@ -0,0 +1,113 @@
+package calc;
+
+import java.util.Locale;
+import java.util.Objects;
+
+import cache.SecondChanceCache;
+
+/**
+ * @PACKAGE : calc
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 22:55
+ * @Desc : 按模式串缓存的数字格式
+ * <p>以（模式串、Locale）为键缓存 {@link CachedNumberFormat}，同一模式在一个JVM中只编译一次。
+ * 缓存有容量上限，超出后按二次机会算法（{@link SecondChanceCache}）淘汰最近未被访问的格式；命中、未命中、淘汰次数可通过统计方法获取。</p>
+ * @History :
+ */
+public final class NumberFormatCache {
+
+    /**
+     * 默认容量
+     */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private static final NumberFormatCache DEFAULT = new NumberFormatCache(DEFAULT_MAX_SIZE);
+
+    private final SecondChanceCache<Key, CachedNumberFormat> formats;
+
+    public NumberFormatCache(int maxSize) {
+        this.formats = new SecondChanceCache<>(maxSize);
+    }
+
+    /**
+     * <p>返回MoneyUtils使用的全局缓存。</p>
+     *
+     * @return NumberFormatCache
+     */
+    public static NumberFormatCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * <p>获取当前默认Locale下指定模式的格式，默认Locale在每次调用时读取。</p>
+     *
+     * @param pattern 数字模式串，如 #,##0.00
+     * @return CachedNumberFormat
+     */
+    public CachedNumberFormat get(String pattern) {
+        return get(pattern, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * <p>获取指定Locale下指定模式的格式。</p>
+     *
+     * @param pattern 数字模式串
+     * @param locale  Locale
+     * @return CachedNumberFormat
+     */
+    public CachedNumberFormat get(String pattern, Locale locale) {
+        return formats.get(new Key(pattern, locale), key -> new CachedNumberFormat(key.pattern, key.locale));
+    }
+
+    /**
+     * <p>清空缓存，统计数据保留。</p>
+     */
+    public void clear() {
+        formats.clear();
+    }
+
+    public int size() {
+        return formats.size();
+    }
+
+    public long getHitCount() {
+        return formats.getHitCount();
+    }
+
+    public long getMissCount() {
+        return formats.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return formats.getEvictionCount();
+    }
+
+    private static final class Key {
+
+        private final String pattern;
+
+        private final Locale locale;
+
+        Key(String pattern, Locale locale) {
+            this.pattern = pattern;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return pattern.equals(key.pattern) && locale.equals(key.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pattern, locale);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package calc;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * @PACKAGE : calc
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 22:40
+ * @Desc : 舍入策略
+ * <p>结果保留的小数位数、舍入模式和可选的中间精度 MathContext 的组合，启动时按币种或业务配置一次，
+ * 之后传给 {@link MathExtendUtils} 的对应方法复用，不必每次传入int舍入模式再逐次转换。不可变，可在线程间共享。</p>
+ * <pre>
+ * 1.{@link #of(int, RoundingMode)} 对0-18位小数与各舍入模式返回缓存的实例
+ * 2.{@link #forCurrency(Currency)} 按币种的默认小数位数（如人民币2位、日元0位）创建，舍入模式为HALF_UP
+ * 3.设置了MathContext时，BigDecimal乘除先按MathContext的有效位数计算，再舍入到scale位小数；
+ *   未设置时只在最后舍入一次，并尽量在long上计算
+ * </pre>
+ * @History :
+ */
+public final class RoundingPolicy {
+
+    private static final int MAX_CACHED_SCALE = 18;
+
+    private static final RoundingMode[] MODES = RoundingMode.values();
+
+    private static final RoundingPolicy[][] CACHE = new RoundingPolicy[MAX_CACHED_SCALE + 1][MODES.length];
+
+    static {
+        for (int scale = 0; scale <= MAX_CACHED_SCALE; scale++) {
+            for (RoundingMode mode : MODES) {
+                CACHE[scale][mode.ordinal()] = new RoundingPolicy(scale, mode, null);
+            }
+        }
+    }
+
+    private final int scale;
+
+    private final RoundingMode mode;
+
+    private final MathContext mathContext;
+
+    private RoundingPolicy(int scale, RoundingMode mode, MathContext mathContext) {
+        this.scale = scale;
+        this.mode = mode;
+        this.mathContext = mathContext;
+    }
+
+    /**
+     * <p>保留scale位小数、按mode舍入的策略。</p>
+     *
+     * @param scale 保留的小数位数
+     * @param mode  舍入模式
+     * @return RoundingPolicy
+     */
+    public static RoundingPolicy of(int scale, RoundingMode mode) {
+        Objects.requireNonNull(mode, "mode");
+        if (scale >= 0 && scale <= MAX_CACHED_SCALE) {
+            return CACHE[scale][mode.ordinal()];
+        }
+        return new RoundingPolicy(scale, mode, null);
+    }
+
+    /**
+     * <p>以 BigDecimal.ROUND_xxx 常量给出舍入模式，经 RoundingMode.valueOf(int) 转换，非法值抛出IllegalArgumentException。</p>
+     *
+     * @param scale        保留的小数位数
+     * @param roundingMode 舍入模式常量
+     * @return RoundingPolicy
+     */
+    public static RoundingPolicy of(int scale, int roundingMode) {
+        return of(scale, RoundingMode.valueOf(roundingMode));
+    }
+
+    /**
+     * <p>按币种默认小数位数、HALF_UP舍入的策略；无小数位定义的币种（如XXX）按2位。</p>
+     *
+     * @param currency 币种
+     * @return RoundingPolicy
+     */
+    public static RoundingPolicy forCurrency(Currency currency) {
+        return forCurrency(currency, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * <p>按币种默认小数位数、指定舍入模式的策略。</p>
+     *
+     * @param currency 币种
+     * @param mode     舍入模式
+     * @return RoundingPolicy
+     */
+    public static RoundingPolicy forCurrency(Currency currency, RoundingMode mode) {
+        int digits = currency.getDefaultFractionDigits();
+        return of(digits < 0 ? 2 : digits, mode);
+    }
+
+    /**
+     * <p>在本策略基础上设置中间精度，null表示不设置。</p>
+     *
+     * @param mathContext 中间精度，如 MathContext.DECIMAL128
+     * @return RoundingPolicy
+     */
+    public RoundingPolicy withMathContext(MathContext mathContext) {
+        if (Objects.equals(this.mathContext, mathContext)) {
+            return this;
+        }
+        return mathContext == null ? of(scale, mode) : new RoundingPolicy(scale, mode, mathContext);
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public RoundingMode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return MathContext 未设置时为null
+     */
+    public MathContext getMathContext() {
+        return mathContext;
+    }
+
+    /**
+     * <p>舍入double的最短十进制表示，同 {@link Decimal#round(double, int, RoundingMode)}。</p>
+     *
+     * @param v double值
+     * @return double
+     */
+    public double round(double v) {
+        return Decimal.round(v, scale, mode);
+    }
+
+    public BigDecimal round(BigDecimal v) {
+        return v.setScale(scale, mode);
+    }
+
+    /**
+     * <p>把标度为fromScale的非标度值舍入到本策略的标度。</p>
+     *
+     * @param unscaled  非标度值
+     * @param fromScale 原标度
+     * @return long 非标度值，溢出时为 {@link Decimal#OVERFLOW}
+     */
+    public long round(long unscaled, int fromScale) {
+        return Decimal.rescale(unscaled, fromScale, scale, mode);
+    }
+
+    public BigDecimal multiply(BigDecimal a, BigDecimal b) {
+        return (mathContext != null ? a.multiply(b, mathContext) : a.multiply(b)).setScale(scale, mode);
+    }
+
+    public BigDecimal divide(BigDecimal a, BigDecimal b) {
+        if (mathContext != null) {
+            return a.divide(b, mathContext).setScale(scale, mode);
+        }
+        return a.divide(b, scale, mode);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RoundingPolicy)) {
+            return false;
+        }
+        RoundingPolicy that = (RoundingPolicy) o;
+        return scale == that.scale && mode == that.mode && Objects.equals(mathContext, that.mathContext);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(scale, mode, mathContext);
+    }
+
+    @Override
+    public String toString() {
+        return "RoundingPolicy{scale=" + scale + ", mode=" + mode
+                + (mathContext != null ? ", mathContext=" + mathContext : "") + "}";
+    }
+}
@@ -0,0 +1,303 @@
+package date;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+
+/**
+ * @PACKAGE : date
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 16:05
+ * @Desc : 工作日历
+ * <p>在给定年份范围内把每一天是否为工作日预编译为按年划分的位图（每年6个long），
+ * 并预先累计各年工作日数。区间工作日计数只需对首尾两年的位图做popcount，与区间长度无关；
+ * 加减N个工作日先按年、再按字定位，最后在单个long内选位。创建后不可变，可在线程间共享。</p>
+ * <p>日历文件每行一个日期（yyyy-MM-dd 或 yyyyMMdd，按严格模式解析，2月30日等不存在的日期视为错误）表示节假日；以“+”开头的日期表示调休上班的周末；
+ * 空行和以“#”开头的注释行忽略。未列出的日期周一至周五为工作日，周六、周日为休息日。</p>
+ * @History :
+ */
+public final class BusinessCalendar {
+
+    private final int firstYear;
+
+    private final int lastYear;
+
+    /**
+     * 各年1月1日的纪元日，末尾多存一个 lastYear+1 年1月1日
+     */
+    private final int[] yearStart;
+
+    /**
+     * 各年工作日位图，第i位对应该年第i天（从0开始）
+     */
+    private final long[][] bits;
+
+    /**
+     * 截至各年年初的累计工作日数，末尾为总数
+     */
+    private final int[] cumulative;
+
+    private BusinessCalendar(int firstYear, int lastYear, int[] holidays, int[] workdays) {
+        if (firstYear > lastYear) {
+            throw new IllegalArgumentException("The firstYear must not be after the lastYear");
+        }
+        int years = lastYear - firstYear + 1;
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        this.yearStart = new int[years + 1];
+        this.bits = new long[years][];
+        this.cumulative = new int[years + 1];
+        for (int i = 0; i <= years; i++) {
+            yearStart[i] = DateCodec.epochDay(firstYear + i, 1, 1);
+        }
+        for (int i = 0; i < years; i++) {
+            int length = yearStart[i + 1] - yearStart[i];
+            long[] words = new long[(length + 63) >>> 6];
+            for (int d = 0; d < length; d++) {
+                if (!isWeekend(yearStart[i] + d)) {
+                    words[d >>> 6] |= 1L << d;
+                }
+            }
+            bits[i] = words;
+        }
+        for (int day : holidays) {
+            set(day, false);
+        }
+        for (int day : workdays) {
+            set(day, true);
+        }
+        for (int i = 0; i < years; i++) {
+            int count = 0;
+            for (long word : bits[i]) {
+                count += Long.bitCount(word);
+            }
+            cumulative[i + 1] = cumulative[i] + count;
+        }
+    }
+
+    /**
+     * <p>根据节假日和调休工作日（均为纪元日）构建日历，范围外的日期被忽略。</p>
+     *
+     * @param firstYear 起始年份
+     * @param lastYear  结束年份（含）
+     * @param holidays  节假日
+     * @param workdays  调休上班的周末
+     * @return BusinessCalendar
+     */
+    public static BusinessCalendar of(int firstYear, int lastYear, int[] holidays, int[] workdays) {
+        return new BusinessCalendar(firstYear, lastYear, holidays, workdays);
+    }
+
+    /**
+     * <p>从本地文件加载日历，文件格式见类说明，按UTF-8读取。</p>
+     *
+     * @param file      日历文件
+     * @param firstYear 起始年份
+     * @param lastYear  结束年份（含）
+     * @return BusinessCalendar
+     * @throws IOException
+     * @throws ParseException 日期无法解析或不存在（如 2023-02-29）时抛出，errorOffset为行号
+     */
+    public static BusinessCalendar load(Path file, int firstYear, int lastYear) throws IOException, ParseException {
+        IntList holidays = new IntList();
+        IntList workdays = new IntList();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                line = line.trim();
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+                boolean workday = line.charAt(0) == '+';
+                String text = workday ? line.substring(1).trim() : line;
+                DateLayout layout = text.length() == DateLayout.DATE_COMPACT.length()
+                        ? DateLayout.DATE_COMPACT : DateLayout.DATE;
+                int day;
+                try {
+                    day = DateCodec.parseEpochDay(layout, text);
+                } catch (ParseException | ArithmeticException e) {
+                    throw new ParseException("Unparseable date at line " + lineNo + ": \"" + line + "\"", lineNo);
+                }
+                // 宽松解析会把越界的月、日进位，格式化回去与原文不同的即为不存在的日期
+                if (!DateCodec.formatEpochDay(layout, day).equals(text)) {
+                    throw new ParseException("Invalid date at line " + lineNo + ": \"" + line + "\"", lineNo);
+                }
+                (workday ? workdays : holidays).add(day);
+            }
+        }
+        return new BusinessCalendar(firstYear, lastYear, holidays.toArray(), workdays.toArray());
+    }
+
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    public int getLastYear() {
+        return lastYear;
+    }
+
+    /**
+     * <p>是否为工作日。</p>
+     *
+     * @param epochDay 纪元日
+     * @return boolean
+     */
+    public boolean isBusinessDay(int epochDay) {
+        int y = yearIndex(epochDay);
+        int d = epochDay - yearStart[y];
+        return (bits[y][d >>> 6] & (1L << d)) != 0;
+    }
+
+    /**
+     * <p>统计区间 [fromDay, toDay) 内的工作日数，fromDay 晚于 toDay 时返回负数。</p>
+     *
+     * @param fromDay 开始纪元日（含）
+     * @param toDay   结束纪元日（不含）
+     * @return int
+     */
+    public int countBusinessDays(int fromDay, int toDay) {
+        return rank(toDay) - rank(fromDay);
+    }
+
+    /**
+     * <p>在指定日期上加减N个工作日，N为0时原样返回。</p>
+     * <pre>N>0 返回之后第N个工作日，N<0 返回之前第|N|个工作日，起始日本身不计入</pre>
+     *
+     * @param epochDay 纪元日
+     * @param n        工作日数
+     * @return int 纪元日
+     */
+    public int addBusinessDays(int epochDay, int n) {
+        if (n == 0) {
+            return epochDay;
+        }
+        // 目标是全范围内第k个工作日（从0开始）
+        long k = n > 0 ? (long) rank(epochDay + 1) + n - 1 : (long) rank(epochDay) + n;
+        return select(k);
+    }
+
+    /**
+     * <p>下一个工作日（不含当天）。</p>
+     *
+     * @param epochDay 纪元日
+     * @return int 纪元日
+     */
+    public int nextBusinessDay(int epochDay) {
+        return addBusinessDays(epochDay, 1);
+    }
+
+    /**
+     * <p>上一个工作日（不含当天）。</p>
+     *
+     * @param epochDay 纪元日
+     * @return int 纪元日
+     */
+    public int previousBusinessDay(int epochDay) {
+        return addBusinessDays(epochDay, -1);
+    }
+
+    /**
+     * 区间 [范围起点, epochDay) 内的工作日数，epochDay 可取范围终点的次日
+     */
+    private int rank(int epochDay) {
+        if (epochDay == yearStart[yearStart.length - 1]) {
+            return cumulative[cumulative.length - 1];
+        }
+        int y = yearIndex(epochDay);
+        int d = epochDay - yearStart[y];
+        long[] words = bits[y];
+        int count = cumulative[y];
+        int w = d >>> 6;
+        for (int i = 0; i < w; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count + Long.bitCount(words[w] & ((1L << d) - 1));
+    }
+
+    /**
+     * 全范围内第k个工作日（从0开始）的纪元日
+     */
+    private int select(long k) {
+        if (k < 0 || k >= cumulative[cumulative.length - 1]) {
+            throw new IllegalArgumentException("The result is outside the calendar range " + firstYear + "-" + lastYear);
+        }
+        int lo = 0;
+        int hi = bits.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (cumulative[mid] <= k) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        int remaining = (int) (k - cumulative[lo]);
+        long[] words = bits[lo];
+        int w = 0;
+        int c;
+        while (remaining >= (c = Long.bitCount(words[w]))) {
+            remaining -= c;
+            w++;
+        }
+        long word = words[w];
+        for (int i = 0; i < remaining; i++) {
+            word &= word - 1;
+        }
+        return yearStart[lo] + (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    private int yearIndex(int epochDay) {
+        int y = DateCodec.ymdOf(epochDay) / 10000 - firstYear;
+        if (epochDay < yearStart[0] || y < 0 || y >= bits.length) {
+            throw new IllegalArgumentException("The date is outside the calendar range " + firstYear + "-" + lastYear);
+        }
+        return y;
+    }
+
+    private void set(int epochDay, boolean business) {
+        if (epochDay < yearStart[0] || epochDay >= yearStart[yearStart.length - 1]) {
+            return;
+        }
+        int y = yearIndex(epochDay);
+        int d = epochDay - yearStart[y];
+        if (business) {
+            bits[y][d >>> 6] |= 1L << d;
+        } else {
+            bits[y][d >>> 6] &= ~(1L << d);
+        }
+    }
+
+    /**
+     * 1970-01-01 为周四，周六、周日为休息日
+     */
+    private static boolean isWeekend(int epochDay) {
+        return Math.floorMod(epochDay + 3, 7) >= 5;
+    }
+
+    /**
+     * 加载文件时收集日期用的简单int列表
+     */
+    private static final class IntList {
+
+        private int[] values = new int[64];
+
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package date;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import cache.ThreadLocalFormat;
+
+/**
+ * @PACKAGE : date
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 10:05
+ * @Desc : 预编译的日期格式
+ * <p>对外不可变、可在线程间共享。模式串只在创建时编译一次，之后每个线程从原型克隆出自己的
+ * SimpleDateFormat 实例使用，克隆不再重新解析模式串。</p>
+ * @History :
+ */
+public final class CachedDateFormat {
+
+    private final String pattern;
+
+    private final Locale locale;
+
+    private final TimeZone zone;
+
+    private final ThreadLocalFormat<SimpleDateFormat> local;
+
+    CachedDateFormat(String pattern, Locale locale, TimeZone zone) {
+        this.pattern = pattern;
+        this.locale = locale;
+        this.zone = (TimeZone) zone.clone();
+        SimpleDateFormat sdf = new SimpleDateFormat(pattern, locale);
+        sdf.setTimeZone(this.zone);
+        this.local = new ThreadLocalFormat<>(sdf);
+    }
+
+    /**
+     * 模式串、Locale与时区ID是否与给定的相同，与 DateFormatCache 的键一致
+     */
+    boolean matches(String pattern, Locale locale, TimeZone zone) {
+        return this.pattern.equals(pattern) && this.locale.equals(locale) && this.zone.getID().equals(zone.getID());
+    }
+
+    /**
+     * <p>格式化日期。</p>
+     *
+     * @param date 日期
+     * @return String
+     */
+    public String format(Date date) {
+        return local.get().format(date);
+    }
+
+    /**
+     * <p>以宽松模式解析日期字符串，与 new SimpleDateFormat(pattern).parse 行为一致。</p>
+     *
+     * @param text 日期字符串
+     * @return Date
+     * @throws ParseException
+     */
+    public Date parse(String text) throws ParseException {
+        return parse(text, true);
+    }
+
+    /**
+     * <p>解析日期字符串。</p>
+     *
+     * @param text    日期字符串
+     * @param lenient 是否宽松解析，false时越界的月、日等字段将抛出ParseException
+     * @return Date
+     * @throws ParseException
+     */
+    public Date parse(String text, boolean lenient) throws ParseException {
+        SimpleDateFormat sdf = local.get();
+        sdf.setLenient(lenient);
+        return sdf.parse(text);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    public TimeZone getTimeZone() {
+        return (TimeZone) zone.clone();
+    }
+}
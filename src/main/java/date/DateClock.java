@@ -0,0 +1,158 @@
+package date;
+
+import java.util.TimeZone;
+
+/**
+ * @PACKAGE : date
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 16:40
+ * @Desc : 当前日期时钟
+ * <p>为 {@link DateUtils#getSystemDate(int)} 各rtype预先渲染好“今天”和“现在”的字符串。
+ * 日期类字符串保存在按本地日划分的不可变快照中，仅在跨日时重建；日期时间类字符串按秒重建。
+ * 快照经volatile字段整体发布，读取方无锁，并发重建时最多重复渲染一次，结果相同。
+ * 与旧版每次新建格式一致，字符串按调用时的默认时区渲染，默认时区改变后快照随之重建。</p>
+ * <p>时间来源可注入，测试时可固定或拨动时钟。</p>
+ * @History :
+ */
+public final class DateClock {
+
+    /**
+     * 时间来源
+     */
+    public interface TimeSource {
+
+        /**
+         * 系统时钟
+         */
+        TimeSource SYSTEM = System::currentTimeMillis;
+
+        /**
+         * <p>当前纪元毫秒。</p>
+         *
+         * @return long
+         */
+        long millis();
+    }
+
+    private static final DateClock SYSTEM = new DateClock(TimeSource.SYSTEM);
+
+    private final TimeSource source;
+
+    private volatile DaySnapshot day;
+
+    private volatile SecondSnapshot second;
+
+    public DateClock(TimeSource source) {
+        if (source == null) {
+            throw new IllegalArgumentException("The time source must not be null");
+        }
+        this.source = source;
+    }
+
+    /**
+     * <p>基于系统时钟的共享实例。</p>
+     *
+     * @return DateClock
+     */
+    public static DateClock system() {
+        return SYSTEM;
+    }
+
+    /**
+     * <p>当前纪元毫秒。</p>
+     *
+     * @return long
+     */
+    public long millis() {
+        return source.millis();
+    }
+
+    /**
+     * <p>返回当前日期字符串，取值同 {@link DateUtils#getSystemDate(int)}。</p>
+     * <pre>
+     * 0:yyyy-MM-dd
+     * 1:'yyyy-MM-dd'
+     * 2:yyyyMMdd
+     * 3:yyyy-MM-dd HH:mm:ss
+     * 4:yyyy/MM/dd HH:mm:ss
+     * 其他:yyyy-MM-dd
+     * </pre>
+     *
+     * @param rtype 返回类型
+     * @return String
+     */
+    public String getSystemDate(int rtype) {
+        long now = source.millis();
+        TimeZone zone = DateCodec.defaultZone();
+        if (rtype == 3 || rtype == 4) {
+            SecondSnapshot s = second;
+            if (s == null || Math.floorDiv(now, 1000) != s.second || !sameZone(s.zone, zone)) {
+                s = new SecondSnapshot(now, zone);
+                second = s;
+            }
+            return rtype == 3 ? s.dateTime : s.dateTimeSlash;
+        }
+        DaySnapshot d = day;
+        if (d == null || now < d.from || now >= d.to || !sameZone(d.zone, zone)) {
+            d = new DaySnapshot(now, zone);
+            day = d;
+        }
+        return rtype == 1 ? d.quoted : rtype == 2 ? d.compact : d.date;
+    }
+
+    /**
+     * 默认时区未变时是同一个对象，只在对象不同时比较ID和规则
+     */
+    private static boolean sameZone(TimeZone cached, TimeZone current) {
+        return cached == current || cached.getID().equals(current.getID()) && cached.hasSameRules(current);
+    }
+
+    /**
+     * 本地日内不变的字符串，有效区间为 [from, to)
+     */
+    private static final class DaySnapshot {
+
+        private final TimeZone zone;
+
+        private final long from;
+
+        private final long to;
+
+        private final String date;
+
+        private final String quoted;
+
+        private final String compact;
+
+        DaySnapshot(long now, TimeZone zone) {
+            long epochDay = Math.floorDiv(DateCodec.utcToLocal(now, zone), DateCodec.MILLIS_PER_DAY);
+            this.zone = zone;
+            this.from = DateCodec.localToUtc(epochDay * DateCodec.MILLIS_PER_DAY, zone);
+            this.to = DateCodec.localToUtc((epochDay + 1) * DateCodec.MILLIS_PER_DAY, zone);
+            this.date = DateCodec.format(DateLayout.DATE, now, zone);
+            this.quoted = "'" + date + "'";
+            this.compact = DateCodec.format(DateLayout.DATE_COMPACT, now, zone);
+        }
+    }
+
+    /**
+     * 同一秒内不变的字符串
+     */
+    private static final class SecondSnapshot {
+
+        private final TimeZone zone;
+
+        private final long second;
+
+        private final String dateTime;
+
+        private final String dateTimeSlash;
+
+        SecondSnapshot(long now, TimeZone zone) {
+            this.zone = zone;
+            this.second = Math.floorDiv(now, 1000);
+            this.dateTime = DateCodec.format(DateLayout.DATE_TIME, now, zone);
+            this.dateTimeSlash = DateCodec.format(DateLayout.DATE_TIME_SLASH, now, zone);
+        }
+    }
+}
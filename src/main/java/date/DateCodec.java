@@ -0,0 +1,462 @@
+package date;
+
+import lombok.extern.log4j.Log4j;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * @PACKAGE : date
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 09:20
+ * @Desc : 定长日期布局的线程安全编解码器
+ * <p>按 {@link DateLayout} 预编译的字段偏移直接扫描数字，计算出纪元毫秒/纪元日；
+ * 格式化时同样按偏移把各字段数字写入字符缓冲区，不解释模式串。
+ * 整个过程无共享可变状态，也不创建Date、Calendar对象。
+ * 宽松(lenient)语义与SimpleDateFormat保持一致：月、日、时、分、秒越界时向上进位；
+ * 不满足定长格式（位数不符、含非数字字符、早于1583年等）的输入交由 {@link DateFormatCache} 中的格式兜底解析。</p>
+ * @History :
+ */
+@Log4j
+public final class DateCodec {
+
+    /**
+     * 一天的毫秒数
+     */
+    static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    /**
+     * 快速路径不适用时的返回标记
+     */
+    static final long NO_MATCH = Long.MIN_VALUE;
+
+    /**
+     * 1582年10月以前为儒略历，交由SimpleDateFormat处理
+     */
+    private static final int MIN_FAST_YEAR = 1583;
+
+    /**
+     * 快速格式化覆盖的纪元日范围：1583-01-01 至 9999-12-31，范围外交由格式缓存处理
+     */
+    private static final long MIN_FAST_DAY = daysFromCivil(MIN_FAST_YEAR, 1, 1);
+
+    private static final long MAX_FAST_DAY = daysFromCivil(9999, 12, 31);
+
+    /**
+     * 每个线程复用的格式化缓冲区，足以容纳任一布局（含兜底格式化的超长年份）
+     */
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[32]);
+
+    /**
+     * 与原静态SimpleDateFormat一致，在类加载时确定时区；原来每次调用都新建格式、跟随当前默认时区的方法
+     * 使用带 TimeZone 参数的重载
+     */
+    private static final TimeZone ZONE = TimeZone.getDefault();
+
+    /**
+     * TimeZone.defaultTimeZone，TimeZone.getDefault() 每次都克隆一个新对象，热点路径直接读取共享的默认时区；
+     * 模块化的JDK不允许访问时为null，退回 TimeZone.getDefault()
+     */
+    private static final Field DEFAULT_ZONE = defaultZoneField();
+
+    private DateCodec() {
+    }
+
+    /**
+     * <p>将字符串按指定布局解析为纪元毫秒。</p>
+     *
+     * @param layout 日期布局
+     * @param text   日期字符串
+     * @return long 1970-01-01T00:00:00Z 起的毫秒数
+     * @throws ParseException
+     */
+    public static long parseEpochMillis(DateLayout layout, CharSequence text) throws ParseException {
+        long local = parseLocalMillis(layout, text);
+        if (local != NO_MATCH) {
+            return localToUtc(local);
+        }
+        return fallbackParse(layout, text);
+    }
+
+    /**
+     * <p>将字符串按指定布局解析为纪元日（1970-01-01 为第0天），时分秒部分被舍去。</p>
+     * <pre>宽松解析得到的日期超出int纪元日范围时抛出ArithmeticException</pre>
+     *
+     * @param layout 日期布局
+     * @param text   日期字符串
+     * @return int 纪元日
+     * @throws ParseException
+     */
+    public static int parseEpochDay(DateLayout layout, CharSequence text) throws ParseException {
+        long local = parseLocalMillis(layout, text);
+        if (local == NO_MATCH) {
+            local = utcToLocal(fallbackParse(layout, text));
+        }
+        return Math.toIntExact(Math.floorDiv(local, MILLIS_PER_DAY));
+    }
+
+    /**
+     * <p>年月日转换为纪元日，月、日越界时按宽松模式进位（如2月30日即3月2日）。</p>
+     *
+     * @param year  年
+     * @param month 月，从1开始
+     * @param day   日，从1开始
+     * @return int 纪元日
+     */
+    public static int epochDay(int year, int month, int day) {
+        if (month < 1 || month > 12) {
+            int m0 = month - 1;
+            year += Math.floorDiv(m0, 12);
+            month = Math.floorMod(m0, 12) + 1;
+        }
+        return daysFromCivil(year, month, 1) + day - 1;
+    }
+
+    /**
+     * <p>纪元日转换为 yyyyMMdd 形式的整数，如 2022-08-05 返回 20220805，适用于0至9999年。</p>
+     *
+     * @param epochDay 纪元日
+     * @return int
+     */
+    public static int ymdOf(int epochDay) {
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 10000 + month * 100 + day;
+    }
+
+    /**
+     * <p>将纪元毫秒按指定布局格式化为字符串。</p>
+     *
+     * @param layout      日期布局
+     * @param epochMillis 纪元毫秒
+     * @return String
+     */
+    public static String format(DateLayout layout, long epochMillis) {
+        char[] buf = BUFFER.get();
+        int n = format(layout, epochMillis, buf, 0);
+        return new String(buf, 0, n);
+    }
+
+    /**
+     * <p>将纪元毫秒按指定布局格式化后追加到StringBuilder。</p>
+     *
+     * @param layout      日期布局
+     * @param epochMillis 纪元毫秒
+     * @param sb          目标
+     */
+    public static void format(DateLayout layout, long epochMillis, StringBuilder sb) {
+        char[] buf = BUFFER.get();
+        int n = format(layout, epochMillis, buf, 0);
+        sb.append(buf, 0, n);
+    }
+
+    /**
+     * <p>将纪元毫秒按指定布局格式化后追加到Appendable。</p>
+     *
+     * @param layout      日期布局
+     * @param epochMillis 纪元毫秒
+     * @param out         目标
+     * @throws IOException
+     */
+    public static void format(DateLayout layout, long epochMillis, Appendable out) throws IOException {
+        char[] buf = BUFFER.get();
+        int n = format(layout, epochMillis, buf, 0);
+        for (int i = 0; i < n; i++) {
+            out.append(buf[i]);
+        }
+    }
+
+    /**
+     * <p>将纪元毫秒按指定布局格式化写入字符数组。</p>
+     * <pre>年份在1583至9999之间时写入 layout.length() 个字符，其余年份按SimpleDateFormat的结果写入</pre>
+     *
+     * @param layout      日期布局
+     * @param epochMillis 纪元毫秒
+     * @param buf         目标数组
+     * @param offset      写入起始位置
+     * @return int 写入的字符数
+     */
+    public static int format(DateLayout layout, long epochMillis, char[] buf, int offset) {
+        return format(layout, epochMillis, ZONE, buf, offset);
+    }
+
+    /**
+     * <p>将纪元毫秒按指定布局在给定时区格式化为字符串。</p>
+     *
+     * @param layout      日期布局
+     * @param epochMillis 纪元毫秒
+     * @param zone        时区，如 TimeZone.getDefault()
+     * @return String
+     */
+    public static String format(DateLayout layout, long epochMillis, TimeZone zone) {
+        char[] buf = BUFFER.get();
+        int n = format(layout, epochMillis, zone, buf, 0);
+        return new String(buf, 0, n);
+    }
+
+    private static int format(DateLayout layout, long epochMillis, TimeZone zone, char[] buf, int offset) {
+        long local = utcToLocal(epochMillis, zone);
+        long day = Math.floorDiv(local, MILLIS_PER_DAY);
+        if (day < MIN_FAST_DAY || day > MAX_FAST_DAY) {
+            return fallbackFormat(layout, epochMillis, zone, buf, offset);
+        }
+        int ymd = ymdOf((int) day);
+        int secondOfDay = (int) (Math.floorMod(local, MILLIS_PER_DAY) / 1000);
+        writeFields(layout, ymd / 10000, ymd / 100 % 100, ymd % 100, secondOfDay, buf, offset);
+        return layout.length();
+    }
+
+    /**
+     * <p>将纪元日（当日零点）按指定布局格式化为字符串。</p>
+     *
+     * @param layout   日期布局
+     * @param epochDay 纪元日
+     * @return String
+     */
+    public static String formatEpochDay(DateLayout layout, int epochDay) {
+        char[] buf = BUFFER.get();
+        int n = formatEpochDay(layout, epochDay, buf, 0);
+        return new String(buf, 0, n);
+    }
+
+    /**
+     * <p>将纪元日（当日零点）按指定布局格式化写入字符数组，不涉及时区换算。</p>
+     *
+     * @param layout   日期布局
+     * @param epochDay 纪元日
+     * @param buf      目标数组
+     * @param offset   写入起始位置
+     * @return int 写入的字符数
+     */
+    public static int formatEpochDay(DateLayout layout, int epochDay, char[] buf, int offset) {
+        if (epochDay < MIN_FAST_DAY || epochDay > MAX_FAST_DAY) {
+            return fallbackFormat(layout, localToUtc(epochDay * MILLIS_PER_DAY), ZONE, buf, offset);
+        }
+        int ymd = ymdOf(epochDay);
+        writeFields(layout, ymd / 10000, ymd / 100 % 100, ymd % 100, 0, buf, offset);
+        return layout.length();
+    }
+
+    private static void writeFields(DateLayout layout, int year, int month, int day, int secondOfDay,
+                                    char[] buf, int offset) {
+        for (int i = 0; i < layout.literalCount(); i++) {
+            buf[offset + layout.literalPos(i)] = layout.literalChar(i);
+        }
+        int pos = offset + layout.yearPos();
+        buf[pos] = (char) ('0' + year / 1000);
+        buf[pos + 1] = (char) ('0' + year / 100 % 10);
+        buf[pos + 2] = (char) ('0' + year / 10 % 10);
+        buf[pos + 3] = (char) ('0' + year % 10);
+        write2(buf, offset + layout.monthPos(), month);
+        write2(buf, offset + layout.dayPos(), day);
+        if (layout.hasTime()) {
+            write2(buf, offset + layout.hourPos(), secondOfDay / 3600);
+            write2(buf, offset + layout.minutePos(), secondOfDay / 60 % 60);
+            if (layout.secondPos() >= 0) {
+                write2(buf, offset + layout.secondPos(), secondOfDay % 60);
+            }
+        }
+    }
+
+    private static void write2(char[] buf, int pos, int value) {
+        buf[pos] = (char) ('0' + value / 10);
+        buf[pos + 1] = (char) ('0' + value % 10);
+    }
+
+    /**
+     * <p>某年某月的天数。</p>
+     *
+     * @param year  年
+     * @param month 月，从1开始
+     * @return int
+     */
+    public static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            return isLeapYear(year) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * <p>是否为公历闰年。</p>
+     *
+     * @param year 年
+     * @return boolean
+     */
+    public static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * 公历年月日（月日均在合法范围内）到纪元日的换算
+     */
+    static int daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    /**
+     * <p>按偏移直接读取各字段，得到本地时间的毫秒数；输入不满足定长格式时返回 {@link #NO_MATCH}。</p>
+     */
+    static long parseLocalMillis(DateLayout layout, CharSequence text) {
+        int len = text.length();
+        int n = layout.length();
+        // 末字段后紧跟数字时SimpleDateFormat会继续读入，此类输入走兜底解析
+        if (len < n || (len > n && isDigit(text.charAt(n)))) {
+            return NO_MATCH;
+        }
+        for (int i = 0; i < layout.literalCount(); i++) {
+            if (text.charAt(layout.literalPos(i)) != layout.literalChar(i)) {
+                return NO_MATCH;
+            }
+        }
+        int year = digits(text, layout.yearPos(), 4);
+        int month = digits(text, layout.monthPos(), 2);
+        int day = digits(text, layout.dayPos(), 2);
+        if ((year | month | day) < 0 || year < MIN_FAST_YEAR) {
+            return NO_MATCH;
+        }
+        long local = epochDay(year, month, day) * MILLIS_PER_DAY;
+        if (layout.hasTime()) {
+            int hour = digits(text, layout.hourPos(), 2);
+            int minute = digits(text, layout.minutePos(), 2);
+            int second = digits(text, layout.secondPos(), 2);
+            if ((hour | minute | second) < 0) {
+                return NO_MATCH;
+            }
+            local += hour * 3600000L + minute * 60000L + second * 1000L;
+        }
+        return local;
+    }
+
+    /**
+     * 读取定长数字字段，字段不存在时返回0，含非数字字符时返回-1
+     */
+    private static int digits(CharSequence text, int pos, int width) {
+        if (pos < 0) {
+            return 0;
+        }
+        int value = 0;
+        for (int i = pos, end = pos + width; i < end; i++) {
+            int d = text.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * <p>本地时间毫秒换算为纪元毫秒。</p>
+     * <pre>先按标准偏移估算UTC时刻取得当时的偏移，再用该偏移复核一次，夏令时切换点附近以复核结果为准；
+     * 本地时间落在向前跳变的空档内时，与GregorianCalendar一致取跳变前（较小）的偏移</pre>
+     */
+    static long localToUtc(long local) {
+        return localToUtc(local, ZONE);
+    }
+
+    /**
+     * 按给定时区把本地时间毫秒换算为纪元毫秒
+     */
+    static long localToUtc(long local, TimeZone zone) {
+        int first = zone.getOffset(local - zone.getRawOffset());
+        int second = zone.getOffset(local - first);
+        long utc = local - second;
+        if (utc + zone.getOffset(utc) != local) {
+            return local - Math.min(first, second);
+        }
+        return utc;
+    }
+
+    private static Field defaultZoneField() {
+        try {
+            Field field = TimeZone.class.getDeclaredField("defaultTimeZone");
+            field.setAccessible(true);
+            return field;
+        } catch (Exception | LinkageError e) {
+            // java.lang.reflect.InaccessibleObjectException 等
+            return null;
+        }
+    }
+
+    /**
+     * <p>当前默认时区，与 TimeZone.getDefault() 相同但不复制；TimeZone.setDefault 之后返回新的时区。</p>
+     * <pre>返回的可能是JDK内部共享的实例，只能读取，不能修改</pre>
+     */
+    static TimeZone defaultZone() {
+        if (DEFAULT_ZONE != null) {
+            try {
+                TimeZone zone = (TimeZone) DEFAULT_ZONE.get(null);
+                if (zone != null) {
+                    return zone;
+                }
+            } catch (IllegalAccessException e) {
+                // 退回公开方法
+            }
+        }
+        return TimeZone.getDefault();
+    }
+
+    /**
+     * <p>纪元日是否在快速编解码覆盖的范围（1583-01-01 至 9999-12-31）内。</p>
+     */
+    static boolean isFastDay(long epochDay) {
+        return epochDay >= MIN_FAST_DAY && epochDay <= MAX_FAST_DAY;
+    }
+
+    /**
+     * 纪元毫秒换算为本地时间毫秒
+     */
+    static long utcToLocal(long millis) {
+        return utcToLocal(millis, ZONE);
+    }
+
+    /**
+     * 按给定时区把纪元毫秒换算为本地时间毫秒
+     */
+    static long utcToLocal(long millis, TimeZone zone) {
+        return millis + zone.getOffset(millis);
+    }
+
+    private static int fallbackFormat(DateLayout layout, long epochMillis, TimeZone zone, char[] buf, int offset) {
+        String text = DateFormatCache.getDefault()
+                .get(layout.pattern(), Locale.getDefault(Locale.Category.FORMAT), zone)
+                .format(new Date(epochMillis));
+        text.getChars(0, text.length(), buf, offset);
+        return text.length();
+    }
+
+    private static long fallbackParse(DateLayout layout, CharSequence text) throws ParseException {
+        return DateFormatCache.getDefault()
+                .get(layout.pattern(), Locale.getDefault(Locale.Category.FORMAT), ZONE)
+                .parse(text.toString(), true)
+                .getTime();
+    }
+
+    public static void main(String[] args) throws Exception {
+        long millis = parseEpochMillis(DateLayout.DATE_TIME, "2017-02-28 13:45:30");
+        log.info("纪元毫秒:" + millis);
+        log.info("格式化:" + format(DateLayout.DATE_TIME, millis));
+        log.info("宽松解析 2017-02-30 的纪元日:" + formatEpochDay(DateLayout.DATE, parseEpochDay(DateLayout.DATE, "2017-02-30")));
+    }
+}
@@ -0,0 +1,517 @@
+package date;
+
+import lombok.extern.log4j.Log4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @PACKAGE : date
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 17:10
+ * @Desc : 分隔文件日期列转换
+ * <p>按块读取输入文件，将指定列从一种 {@link DateLayout} 改写为另一种，全程在字节数组上按字段偏移读写，
+ * 不经过String和SimpleDateFormat。块边界对齐到换行符，多个块可并行转换，输出按块顺序写入。</p>
+ * <pre>
+ * 1.字段按分隔符切分，以双引号包裹的字段可含分隔符，但记录内不能含换行符
+ * 2.目标单元格可带双引号，引号保留；空单元格及列数不足的行原样输出，计入skipped
+ * 3.不符合源布局或日期时间越界（如2月30日）的单元格原样输出，计入invalid
+ * 4.源布局无时间字段时目标时间补0，目标布局无时间字段时丢弃时间
+ * </pre>
+ * @History :
+ */
+@Log4j
+public final class DateColumnConverter {
+
+    /**
+     * 默认块大小，8MB
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8 << 20;
+
+    private static final int MAX_CHUNK_SIZE = 1 << 30;
+
+    private final int column;
+
+    private final DateLayout source;
+
+    private final DateLayout target;
+
+    private final byte delimiter;
+
+    private final boolean header;
+
+    private final int parallelism;
+
+    private final int chunkSize;
+
+    /**
+     * <p>逗号分隔、无表头、按CPU核数并行。</p>
+     *
+     * @param column 列序号，从0开始
+     * @param source 源布局
+     * @param target 目标布局
+     */
+    public DateColumnConverter(int column, DateLayout source, DateLayout target) {
+        this(column, source, target, ',', false, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param column      列序号，从0开始
+     * @param source      源布局
+     * @param target      目标布局
+     * @param delimiter   分隔符，须为ASCII字符
+     * @param header      首行是否为表头，表头原样输出
+     * @param parallelism 并行线程数，1为在当前线程顺序转换
+     * @param chunkSize   块大小（字节），实际块延伸至下一个换行符
+     */
+    public DateColumnConverter(int column, DateLayout source, DateLayout target, char delimiter, boolean header,
+                               int parallelism, int chunkSize) {
+        if (column < 0 || source == null || target == null) {
+            throw new IllegalArgumentException("The column must be non-negative and layouts must not be null");
+        }
+        if (delimiter >= 0x80 || delimiter == '\n' || delimiter == '\r' || delimiter == '"') {
+            throw new IllegalArgumentException("Unsupported delimiter: " + delimiter);
+        }
+        if (parallelism < 1 || chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Illegal parallelism or chunk size");
+        }
+        this.column = column;
+        this.source = source;
+        this.target = target;
+        this.delimiter = (byte) delimiter;
+        this.header = header;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * <p>转换文件，输出文件已存在时覆盖。</p>
+     *
+     * @param input  输入文件
+     * @param output 输出文件
+     * @return Stats 转换统计
+     * @throws IOException
+     */
+    public Stats convert(Path input, Path output) throws IOException {
+        long started = System.nanoTime();
+        Stats stats = new Stats();
+        // 块的读入缓冲在本次转换的各任务间复用，个数不超过同时执行的任务数，转换结束后随之释放
+        ConcurrentLinkedQueue<byte[]> buffers = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = parallelism > 1 ? Executors.newFixedThreadPool(parallelism) : null;
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            if (executor == null) {
+                while (position < size) {
+                    long end = boundary(in, position + chunkSize, size);
+                    write(out, new Chunk(in, position, end, buffers).call(), stats);
+                    position = end;
+                }
+            } else {
+                // 最多 2*parallelism 个块在途，按提交顺序取结果写出
+                ArrayDeque<Future<Result>> window = new ArrayDeque<>();
+                while (position < size || !window.isEmpty()) {
+                    while (position < size && window.size() < parallelism * 2) {
+                        long end = boundary(in, position + chunkSize, size);
+                        window.add(executor.submit(new Chunk(in, position, end, buffers)));
+                        position = end;
+                    }
+                    write(out, await(window.poll()), stats);
+                }
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        stats.elapsedNanos = System.nanoTime() - started;
+        return stats;
+    }
+
+    private static Result await(Future<Result> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while converting", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static void write(FileChannel out, Result result, Stats stats) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(result.bytes, 0, result.length);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        stats.rows += result.rows;
+        stats.converted += result.converted;
+        stats.invalid += result.invalid;
+        stats.skipped += result.skipped;
+        stats.bytesRead += result.bytesRead;
+        stats.bytesWritten += result.length;
+    }
+
+    /**
+     * 从from起找到下一个换行符之后的位置，作为块的结束位置
+     */
+    private static long boundary(FileChannel in, long from, long size) throws IOException {
+        if (from >= size) {
+            return size;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            int n = in.read(buffer, position);
+            if (n <= 0) {
+                break;
+            }
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < n; i++) {
+                if (bytes[i] == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += n;
+        }
+        return size;
+    }
+
+    /**
+     * 单个块的转换任务
+     */
+    private final class Chunk implements Callable<Result> {
+
+        private final FileChannel channel;
+
+        private final long start;
+
+        private final long end;
+
+        private final ConcurrentLinkedQueue<byte[]> buffers;
+
+        Chunk(FileChannel channel, long start, long end, ConcurrentLinkedQueue<byte[]> buffers) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.buffers = buffers;
+        }
+
+        @Override
+        public Result call() throws IOException {
+            long length = end - start;
+            if (length > Integer.MAX_VALUE - 8) {
+                throw new IOException("Line too long at offset " + start);
+            }
+            int len = (int) length;
+            byte[] in = buffers.poll();
+            if (in == null || in.length < len) {
+                in = new byte[Math.max(len, chunkSize + 1024)];
+            }
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(in, 0, len);
+                long position = start;
+                while (buffer.hasRemaining()) {
+                    int n = channel.read(buffer, position);
+                    if (n < 0) {
+                        throw new IOException("Unexpected end of file at offset " + position);
+                    }
+                    position += n;
+                }
+                return convertChunk(in, len, header && start == 0);
+            } finally {
+                buffers.offer(in);
+            }
+        }
+    }
+
+    private Result convertChunk(byte[] in, int len, boolean skipFirst) {
+        int growth = Math.max(0, target.length() - source.length());
+        Result r = new Result(len + len / (source.length() + 1) * growth);
+        r.bytesRead = len;
+        int pos = 0;
+        while (pos < len) {
+            int lineEnd = pos;
+            while (lineEnd < len && in[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            int next = lineEnd < len ? lineEnd + 1 : len;
+            int contentEnd = lineEnd > pos && in[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+            if (skipFirst || contentEnd == pos) {
+                skipFirst = false;
+                r.append(in, pos, next - pos);
+                pos = next;
+                continue;
+            }
+            r.rows++;
+            int fieldStart = pos;
+            for (int f = 0; f < column && fieldStart <= contentEnd; f++) {
+                fieldStart = fieldEnd(in, fieldStart, contentEnd) + 1;
+            }
+            if (fieldStart > contentEnd) {
+                r.skipped++;
+                r.append(in, pos, next - pos);
+                pos = next;
+                continue;
+            }
+            int cellStart = fieldStart;
+            int cellEnd = fieldEnd(in, fieldStart, contentEnd);
+            if (cellEnd - cellStart >= 2 && in[cellStart] == '"' && in[cellEnd - 1] == '"') {
+                cellStart++;
+                cellEnd--;
+            }
+            r.append(in, pos, cellStart - pos);
+            if (cellEnd == cellStart) {
+                r.skipped++;
+            } else if (convertCell(in, cellStart, cellEnd - cellStart, r)) {
+                r.converted++;
+            } else {
+                r.invalid++;
+                r.append(in, cellStart, cellEnd - cellStart);
+            }
+            r.append(in, cellEnd, next - cellEnd);
+            pos = next;
+        }
+        return r;
+    }
+
+    /**
+     * 字段结束位置（分隔符或行尾），双引号内的分隔符不计
+     */
+    private int fieldEnd(byte[] in, int pos, int end) {
+        if (pos < end && in[pos] == '"') {
+            pos++;
+            while (pos < end) {
+                if (in[pos] == '"') {
+                    if (pos + 1 < end && in[pos + 1] == '"') {
+                        pos += 2;
+                        continue;
+                    }
+                    pos++;
+                    break;
+                }
+                pos++;
+            }
+        }
+        while (pos < end && in[pos] != delimiter) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * 按源布局读取单元格并按目标布局写入结果，不符合时不写入并返回false
+     */
+    private boolean convertCell(byte[] in, int start, int len, Result r) {
+        DateLayout s = source;
+        if (len != s.length()) {
+            return false;
+        }
+        for (int i = 0; i < s.literalCount(); i++) {
+            if (in[start + s.literalPos(i)] != s.literalChar(i)) {
+                return false;
+            }
+        }
+        int year = digits(in, start, s.yearPos(), 4);
+        int month = digits(in, start, s.monthPos(), 2);
+        int day = digits(in, start, s.dayPos(), 2);
+        int hour = digits(in, start, s.hourPos(), 2);
+        int minute = digits(in, start, s.minutePos(), 2);
+        int second = digits(in, start, s.secondPos(), 2);
+        if ((year | month | day | hour | minute | second) < 0 || month < 1 || month > 12 || day < 1
+                || day > DateCodec.lengthOfMonth(year, month) || hour > 23 || minute > 59 || second > 59) {
+            return false;
+        }
+        DateLayout t = target;
+        byte[] out = r.reserve(t.length());
+        int offset = r.length;
+        for (int i = 0; i < t.literalCount(); i++) {
+            out[offset + t.literalPos(i)] = (byte) t.literalChar(i);
+        }
+        int p = offset + t.yearPos();
+        out[p] = (byte) ('0' + year / 1000);
+        out[p + 1] = (byte) ('0' + year / 100 % 10);
+        out[p + 2] = (byte) ('0' + year / 10 % 10);
+        out[p + 3] = (byte) ('0' + year % 10);
+        write2(out, offset, t.monthPos(), month);
+        write2(out, offset, t.dayPos(), day);
+        write2(out, offset, t.hourPos(), hour);
+        write2(out, offset, t.minutePos(), minute);
+        write2(out, offset, t.secondPos(), second);
+        r.length += t.length();
+        return true;
+    }
+
+    /**
+     * 读取定长数字字段，字段不存在时返回0，含非数字字符时返回-1
+     */
+    private static int digits(byte[] in, int start, int pos, int width) {
+        if (pos < 0) {
+            return 0;
+        }
+        int value = 0;
+        for (int i = start + pos, end = i + width; i < end; i++) {
+            int d = in[i] - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static void write2(byte[] out, int offset, int pos, int value) {
+        if (pos >= 0) {
+            out[offset + pos] = (byte) ('0' + value / 10);
+            out[offset + pos + 1] = (byte) ('0' + value % 10);
+        }
+    }
+
+    /**
+     * 单个块的输出及计数
+     */
+    private static final class Result {
+
+        private byte[] bytes;
+
+        private int length;
+
+        private long rows;
+
+        private long converted;
+
+        private long invalid;
+
+        private long skipped;
+
+        private long bytesRead;
+
+        Result(int capacity) {
+            this.bytes = new byte[Math.max(capacity, 16)];
+        }
+
+        byte[] reserve(int n) {
+            if (length + n > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + n));
+            }
+            return bytes;
+        }
+
+        void append(byte[] src, int from, int n) {
+            reserve(n);
+            System.arraycopy(src, from, bytes, length, n);
+            length += n;
+        }
+    }
+
+    /**
+     * 转换统计
+     */
+    public static final class Stats {
+
+        private long rows;
+
+        private long converted;
+
+        private long invalid;
+
+        private long skipped;
+
+        private long bytesRead;
+
+        private long bytesWritten;
+
+        private long elapsedNanos;
+
+        /**
+         * 数据行数，不含表头和空行
+         */
+        public long getRows() {
+            return rows;
+        }
+
+        public long getConverted() {
+            return converted;
+        }
+
+        /**
+         * 不符合源布局而原样输出的单元格数
+         */
+        public long getInvalid() {
+            return invalid;
+        }
+
+        /**
+         * 空单元格及列数不足的行数
+         */
+        public long getSkipped() {
+            return skipped;
+        }
+
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * 每秒处理的行数
+         */
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("rows=%d, converted=%d, invalid=%d, skipped=%d, bytesRead=%d, bytesWritten=%d,"
+                            + " elapsed=%.3fs, rows/s=%.0f", rows, converted, invalid, skipped, bytesRead,
+                    bytesWritten, elapsedNanos / 1e9, getRowsPerSecond());
+        }
+    }
+
+    /**
+     * <p>命令行入口：输入文件 输出文件 列序号 源模式串 目标模式串 [分隔符]。</p>
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 5) {
+            log.info("usage: DateColumnConverter <input> <output> <column> <sourcePattern> <targetPattern>"
+                    + " [delimiter]");
+            return;
+        }
+        DateLayout source = DateLayout.of(args[3]);
+        DateLayout target = DateLayout.of(args[4]);
+        if (source == null || target == null) {
+            throw new IllegalArgumentException("Unsupported pattern: " + (source == null ? args[3] : args[4]));
+        }
+        char delimiter = args.length > 5 ? args[5].charAt(0) : ',';
+        DateColumnConverter converter = new DateColumnConverter(Integer.parseInt(args[2]), source, target, delimiter,
+                false, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+        Stats stats = converter.convert(Paths.get(args[0]), Paths.get(args[1]));
+        log.info(stats);
+    }
+}
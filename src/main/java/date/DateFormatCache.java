@@ -0,0 +1,134 @@
+package date;
+
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.LongAdder;
+
+import cache.SecondChanceCache;
+
+/**
+ * @PACKAGE : date
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 10:10
+ * @Desc : 按模式串缓存的日期格式
+ * <p>以（模式串、Locale、时区）为键缓存 {@link CachedDateFormat}，同一模式在一个JVM中只编译一次。
+ * 缓存有容量上限，超出后按二次机会算法（{@link SecondChanceCache}）淘汰最近未被访问的格式；命中、未命中、淘汰次数可通过统计方法获取。</p>
+ * @History :
+ */
+public final class DateFormatCache {
+
+    /**
+     * 默认容量
+     */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private static final DateFormatCache DEFAULT = new DateFormatCache(DEFAULT_MAX_SIZE);
+
+    private final SecondChanceCache<Key, CachedDateFormat> formats;
+
+    /**
+     * 最近一次取到的格式，连续使用同一格式时不创建键、不查表
+     */
+    private volatile CachedDateFormat recent;
+
+    private final LongAdder recentHits = new LongAdder();
+
+    public DateFormatCache(int maxSize) {
+        this.formats = new SecondChanceCache<>(maxSize);
+    }
+
+    /**
+     * <p>返回DateUtils使用的全局缓存。</p>
+     *
+     * @return DateFormatCache
+     */
+    public static DateFormatCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * <p>获取当前默认Locale和时区下指定模式的格式。</p>
+     * <p>默认值在每次调用时读取，TimeZone.setDefault、Locale.setDefault 之后取到的是新默认值下的格式。</p>
+     *
+     * @param pattern 日期模式串
+     * @return CachedDateFormat
+     */
+    public CachedDateFormat get(String pattern) {
+        return get(pattern, Locale.getDefault(Locale.Category.FORMAT), DateCodec.defaultZone());
+    }
+
+    /**
+     * <p>获取指定Locale和时区下指定模式的格式。</p>
+     *
+     * @param pattern 日期模式串
+     * @param locale  Locale
+     * @param zone    时区
+     * @return CachedDateFormat
+     */
+    public CachedDateFormat get(String pattern, Locale locale, TimeZone zone) {
+        CachedDateFormat format = recent;
+        if (format != null && format.matches(pattern, locale, zone)) {
+            recentHits.increment();
+            return format;
+        }
+        format = formats.get(new Key(pattern, locale, zone.getID()), key -> new CachedDateFormat(pattern, locale, zone));
+        recent = format;
+        return format;
+    }
+
+    /**
+     * <p>清空缓存，统计数据保留。</p>
+     */
+    public void clear() {
+        recent = null;
+        formats.clear();
+    }
+
+    public int size() {
+        return formats.size();
+    }
+
+    public long getHitCount() {
+        return formats.getHitCount() + recentHits.sum();
+    }
+
+    public long getMissCount() {
+        return formats.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return formats.getEvictionCount();
+    }
+
+    private static final class Key {
+
+        private final String pattern;
+
+        private final Locale locale;
+
+        private final String zoneId;
+
+        Key(String pattern, Locale locale, String zoneId) {
+            this.pattern = pattern;
+            this.locale = locale;
+            this.zoneId = zoneId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return pattern.equals(key.pattern) && locale.equals(key.locale) && zoneId.equals(key.zoneId);
+        }
+
+        @Override
+        public int hashCode() {
+            return (pattern.hashCode() * 31 + locale.hashCode()) * 31 + zoneId.hashCode();
+        }
+    }
+}
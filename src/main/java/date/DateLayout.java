@@ -0,0 +1,209 @@
+package date;
+
+/**
+ * @PACKAGE : date
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 09:12
+ * @Desc : 固定宽度的日期布局定义
+ * <p>布局在类加载时预编译为各字段的字符偏移，解析和格式化时直接按偏移读写数字，不再解释模式串。
+ * 只支持 yyyy、MM、dd、HH、mm、ss 六种定长数字字段，其余字符按字面量处理。</p>
+ * @History :
+ */
+public enum DateLayout {
+
+    /**
+     * yyyyMMdd
+     */
+    DATE_COMPACT("yyyyMMdd"),
+
+    /**
+     * yyyyMMddHHmm
+     */
+    MINUTE_COMPACT("yyyyMMddHHmm"),
+
+    /**
+     * yyyy-MM-dd
+     */
+    DATE("yyyy-MM-dd"),
+
+    /**
+     * yyyy-MM-dd HH:mm:ss
+     */
+    DATE_TIME("yyyy-MM-dd HH:mm:ss"),
+
+    /**
+     * yyyy/MM/dd HH:mm:ss
+     */
+    DATE_TIME_SLASH("yyyy/MM/dd HH:mm:ss");
+
+    private static final DateLayout[] VALUES = values();
+
+    private final String pattern;
+
+    private final int length;
+
+    private final int yearPos;
+
+    private final int monthPos;
+
+    private final int dayPos;
+
+    private final int hourPos;
+
+    private final int minutePos;
+
+    private final int secondPos;
+
+    /**
+     * 字面量字符所在位置及对应字符
+     */
+    private final int[] literalPos;
+
+    private final char[] literalChars;
+
+    DateLayout(String pattern) {
+        this.pattern = pattern;
+        this.length = pattern.length();
+        int y = -1, mo = -1, d = -1, h = -1, mi = -1, s = -1;
+        int literals = 0;
+        int i = 0;
+        while (i < length) {
+            char c = pattern.charAt(i);
+            int width = fieldWidth(c);
+            if (width == 0) {
+                literals++;
+                i++;
+                continue;
+            }
+            for (int j = 1; j < width; j++) {
+                if (i + j >= length || pattern.charAt(i + j) != c) {
+                    throw new IllegalArgumentException("Unsupported layout: " + pattern);
+                }
+            }
+            switch (c) {
+                case 'y':
+                    y = i;
+                    break;
+                case 'M':
+                    mo = i;
+                    break;
+                case 'd':
+                    d = i;
+                    break;
+                case 'H':
+                    h = i;
+                    break;
+                case 'm':
+                    mi = i;
+                    break;
+                default:
+                    s = i;
+                    break;
+            }
+            i += width;
+        }
+        this.yearPos = y;
+        this.monthPos = mo;
+        this.dayPos = d;
+        this.hourPos = h;
+        this.minutePos = mi;
+        this.secondPos = s;
+        this.literalPos = new int[literals];
+        this.literalChars = new char[literals];
+        int k = 0;
+        for (i = 0; i < length; ) {
+            char c = pattern.charAt(i);
+            int width = fieldWidth(c);
+            if (width == 0) {
+                literalPos[k] = i;
+                literalChars[k++] = c;
+                i++;
+            } else {
+                i += width;
+            }
+        }
+    }
+
+    private static int fieldWidth(char c) {
+        switch (c) {
+            case 'y':
+                return 4;
+            case 'M':
+            case 'd':
+            case 'H':
+            case 'm':
+            case 's':
+                return 2;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * <p>按模式串查找对应布局，找不到时返回null。</p>
+     *
+     * @param pattern 日期模式串，例如 yyyyMMdd
+     * @return DateLayout
+     */
+    public static DateLayout of(String pattern) {
+        for (DateLayout layout : VALUES) {
+            if (layout.pattern.equals(pattern)) {
+                return layout;
+            }
+        }
+        return null;
+    }
+
+    public String pattern() {
+        return pattern;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    int yearPos() {
+        return yearPos;
+    }
+
+    int monthPos() {
+        return monthPos;
+    }
+
+    int dayPos() {
+        return dayPos;
+    }
+
+    int hourPos() {
+        return hourPos;
+    }
+
+    int minutePos() {
+        return minutePos;
+    }
+
+    int secondPos() {
+        return secondPos;
+    }
+
+    /**
+     * <p>是否包含时分秒字段。</p>
+     *
+     * @return boolean
+     */
+    public boolean hasTime() {
+        return hourPos >= 0;
+    }
+
+    int literalCount() {
+        return literalPos.length;
+    }
+
+    int literalPos(int i) {
+        return literalPos[i];
+    }
+
+    char literalChar(int i) {
+        return literalChars[i];
+    }
+}
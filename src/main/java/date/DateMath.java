@@ -0,0 +1,88 @@
+package date;
+
+import java.util.Calendar;
+
+/**
+ * @PACKAGE : date
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 13:40
+ * @Desc : 基于纪元日/纪元毫秒的日期差计算
+ * <p>DateUtils中各类日期差方法的计算核心，输入先换算一次为本地纪元日或纪元毫秒，之后全部为整数运算，
+ * 不创建Calendar对象。</p>
+ * @History :
+ */
+final class DateMath {
+
+    static final long MILLIS_PER_HOUR = 60L * 60 * 1000;
+
+    static final long MILLIS_PER_MINUTE = 60L * 1000;
+
+    private DateMath() {
+    }
+
+    /**
+     * 纪元毫秒所在的本地纪元日
+     */
+    static long localEpochDay(long epochMillis) {
+        return Math.floorDiv(DateCodec.utcToLocal(epochMillis), DateCodec.MILLIS_PER_DAY);
+    }
+
+    /**
+     * 当前本地纪元日
+     */
+    static long today() {
+        return localEpochDay(System.currentTimeMillis());
+    }
+
+    /**
+     * 纪元毫秒所在的本地月份序号，即 年*12+月(从0开始)
+     */
+    static int epochMonth(long epochMillis) {
+        long day = localEpochDay(epochMillis);
+        if (DateCodec.isFastDay(day)) {
+            int ymd = DateCodec.ymdOf((int) day);
+            return ymd / 10000 * 12 + ymd / 100 % 100 - 1;
+        }
+        // 儒略历及超长年份
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(epochMillis);
+        return cal.get(Calendar.YEAR) * 12 + cal.get(Calendar.MONTH);
+    }
+
+    /**
+     * 纪元毫秒加减N天，本地钟点不变，与 Calendar.add(Calendar.DATE, days) 一致：
+     * 先沿用原偏移推算，偏移变化时按新偏移修正，修正后跨日则保留修正前的结果
+     */
+    static long addDays(long epochMillis, int days) {
+        long offset = DateCodec.utcToLocal(epochMillis) - epochMillis;
+        long local = epochMillis + offset + days * DateCodec.MILLIS_PER_DAY;
+        long time = local - offset;
+        long diff = offset - (DateCodec.utcToLocal(time) - time);
+        if (diff != 0 && Math.floorDiv(DateCodec.utcToLocal(time + diff), DateCodec.MILLIS_PER_DAY)
+                == Math.floorDiv(local, DateCodec.MILLIS_PER_DAY)) {
+            return time + diff;
+        }
+        return time;
+    }
+
+    /**
+     * 两个纪元毫秒相差的整小时数，不足一小时的部分向零截断
+     */
+    static long hoursBetween(long from, long to) {
+        return (to - from) / MILLIS_PER_HOUR;
+    }
+
+    /**
+     * 两个纪元毫秒相差的整分钟数，不足一分钟的部分向零截断
+     */
+    static long minutesBetween(long from, long to) {
+        return (to - from) / MILLIS_PER_MINUTE;
+    }
+
+    /**
+     * 两个纪元毫秒所在本地月份相差的月数，不考虑日
+     */
+    static int monthsBetween(long from, long to) {
+        return epochMonth(to) - epochMonth(from);
+    }
+}
@@ -9,7 +9,6 @@ import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
-import java.util.Locale;
 
 /**
  * @PACKAGE : date
@@ -26,14 +25,27 @@ public class DateUtils {
 //    private static Logger log = Logger.getLogger(DateUtils.class);
 
     /**
-     * 默认日期格式
+     * 当前日期时钟，getSystemDate/getNullDate 从中取预先渲染的字符串
      */
-    private static SimpleDateFormat df = new SimpleDateFormat("yyyyMMdd");
+    private static volatile DateClock clock = DateClock.system();
 
     /**
-     * 默认日期时间格式
+     * <p>替换当前日期时钟，传入null时恢复系统时钟。</p>
+     *
+     * @param dateClock 日期时钟
+     */
+    public static void setClock(DateClock dateClock) {
+        clock = dateClock == null ? DateClock.system() : dateClock;
+    }
+
+    /**
+     * <p>返回当前日期时钟。</p>
+     *
+     * @return DateClock
      */
-    private static SimpleDateFormat timeFormat = new SimpleDateFormat("yyyyMMddHHmm");
+    public static DateClock getClock() {
+        return clock;
+    }
 
     /**
      * @desc 返回当前日期
@@ -68,8 +80,7 @@ public class DateUtils {
         //断言
         Assert.notNull(date);//当 object 不为 null 时抛出异常，notNull(Object object, String message) 方法允许您通过 message 定制异常信息。和 notNull() 方法断言规则相反的方法是 isNull(Object object)/isNull(Object object, String message)，它要求入参一定是 null；
         Assert.hasText(stringformat);//text 不能为 null 且必须至少包含一个非空格的字符，否则抛出异常；
-        SimpleDateFormat df = new SimpleDateFormat(stringformat);
-        return df.format(date);
+        return DateFormatCache.getDefault().get(stringformat).format(date);
     }
 
     /**
@@ -82,9 +93,8 @@ public class DateUtils {
         if (date == null) {
             return "";
         }
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
         try {
-            date = sdf.format(sdf.parse(date));
+            date = DateCodec.format(DateLayout.DATE, DateCodec.parseEpochMillis(DateLayout.DATE, date));
         } catch (ParseException e) {
             e.printStackTrace();
         }
@@ -102,8 +112,7 @@ public class DateUtils {
         if (date == null) {
             return "";
         }
-        String format = "yyyy-MM-dd HH:mm:ss";
-        return date2String(date, format);
+        return DateCodec.format(DateLayout.DATE_TIME, date.getTime(), DateCodec.defaultZone());
     }
 
     /**
@@ -116,8 +125,7 @@ public class DateUtils {
         if (date == null) {
             return "";
         }
-        String format = "yyyy-MM-dd";
-        return date2String(date, format);
+        return DateCodec.format(DateLayout.DATE, date.getTime(), DateCodec.defaultZone());
     }
 
     /**
@@ -129,11 +137,33 @@ public class DateUtils {
      * @throws ParseException
      */
     public static Date toDate(String string) throws ParseException {
+        return new Date(toEpochMillis(string));
+    }
+
+    /**
+     * <p>转换字符串类型为纪元毫秒，不创建Date对象。</p>
+     * <pre>格式为yyyyMMdd</pre>
+     *
+     * @param string 日期字符串
+     * @return long 1970-01-01T00:00:00Z 起的毫秒数
+     * @throws ParseException
+     */
+    public static long toEpochMillis(String string) throws ParseException {
+        Assert.notNull(string);
+        return DateCodec.parseEpochMillis(DateLayout.DATE_COMPACT, string);
+    }
+
+    /**
+     * <p>转换字符串类型为纪元日（1970-01-01 为第0天），不创建Date对象。</p>
+     * <pre>格式为yyyyMMdd</pre>
+     *
+     * @param string 日期字符串
+     * @return int 纪元日
+     * @throws ParseException
+     */
+    public static int toEpochDay(String string) throws ParseException {
         Assert.notNull(string);
-        Date cDate = null;
-        df.setLenient(true);
-        cDate = df.parse(string);
-        return cDate;
+        return DateCodec.parseEpochDay(DateLayout.DATE_COMPACT, string);
     }
 
     /**
@@ -145,11 +175,20 @@ public class DateUtils {
      * @throws ParseException
      */
     public static Date toTime(String string) throws ParseException {
+        return new Date(toTimeMillis(string));
+    }
+
+    /**
+     * <p>转换字符串类型为纪元毫秒，不创建Date对象。</p>
+     * <pre>格式为yyyyMMddHHmm</pre>
+     *
+     * @param string 日期时间字符串
+     * @return long 1970-01-01T00:00:00Z 起的毫秒数
+     * @throws ParseException
+     */
+    public static long toTimeMillis(String string) throws ParseException {
         Assert.notNull(string);
-        Date cDate = null;
-        timeFormat.setLenient(true);
-        cDate = timeFormat.parse(string);
-        return cDate;
+        return DateCodec.parseEpochMillis(DateLayout.MINUTE_COMPACT, string);
     }
 
     /**
@@ -177,6 +216,12 @@ public class DateUtils {
      * @since 1.1
      */
     public static Date getFirstSecondDate(Date date) {
+        Assert.notNull(date);
+        long day = DateMath.localEpochDay(date.getTime());
+        if (DateCodec.isFastDay(day)) {
+            return new Date(DateCodec.localToUtc(day * DateCodec.MILLIS_PER_DAY));
+        }
+        // 儒略历及超长年份
         Date retDate = null;
         try {
             retDate = format(date, "yyyy-MM-dd 00:00:00");
@@ -196,6 +241,10 @@ public class DateUtils {
      */
     public static Date getLastSecondDate(Date date) {
         Date tmpDate = getFirstSecondDate(date);
+        if (DateCodec.isFastDay(DateMath.localEpochDay(tmpDate.getTime()) + 1)) {
+            // 次日同一钟点减一秒
+            return new Date(DateMath.addDays(tmpDate.getTime(), 1) - 1000);
+        }
         GregorianCalendar cal = new GregorianCalendar();
         cal.setTime(tmpDate);
         cal.add(GregorianCalendar.DATE, 1);
@@ -214,17 +263,12 @@ public class DateUtils {
     public static Date toDate(String dateFormat, String dateString) throws ParseException {
         Assert.notNull(dateFormat);
         Assert.notNull(dateString);
-        Date cDate = null;
-        SimpleDateFormat sdf = new SimpleDateFormat(dateFormat);
-        sdf.setLenient(true);
-        cDate = sdf.parse(dateString);
-        return cDate;
+        return DateFormatCache.getDefault().get(dateFormat).parse(dateString, true);
     }
 
     public static boolean isValidDate(String s) {
         try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-            sdf.parse(s);
+            DateCodec.parseEpochMillis(DateLayout.DATE, s);
             return true;
         } catch (Exception e) {
             return false;
@@ -240,7 +284,7 @@ public class DateUtils {
      */
     public static Boolean isDate(String dateStr, String stringformat) {
         Assert.notNull(dateStr);
-        SimpleDateFormat sdf = new SimpleDateFormat(stringformat);
+        CachedDateFormat sdf = DateFormatCache.getDefault().get(stringformat);
         final String STR = "0123456789/-:";
         if (dateStr.length() != stringformat.length()) {
             return false;
@@ -251,8 +295,7 @@ public class DateUtils {
                 }
             }
             try {
-                sdf.setLenient(false);
-                sdf.parse(dateStr);
+                sdf.parse(dateStr, false);
                 return true;
             } catch (ParseException e) {
                 return false;
@@ -269,13 +312,13 @@ public class DateUtils {
     public static int gap(Date date) {
         Assert.notNull(date);
 
-        Calendar before = Calendar.getInstance();
-        Calendar current = Calendar.getInstance();
-        before.setTime(date);
-        current.setTime(new Date());
-        log.debug(date2String(before.getTime()));
-        log.debug(date2String(current.getTime()));
-        return (int) ((current.getTimeInMillis() - before.getTimeInMillis()) / (1000 * 60 * 60));
+        long before = date.getTime();
+        long current = System.currentTimeMillis();
+        if (log.isDebugEnabled()) {
+            log.debug(DateCodec.format(DateLayout.DATE_TIME, before));
+            log.debug(DateCodec.format(DateLayout.DATE_TIME, current));
+        }
+        return (int) DateMath.hoursBetween(before, current);
     }
 
     /**
@@ -288,15 +331,7 @@ public class DateUtils {
     public static int getBetweenHours(Date date1, Date date2) {
         if (date1 == null || date2 == null)
             return 0;
-        Calendar cal1 = new GregorianCalendar(Locale.CHINA);
-        Calendar cal2 = new GregorianCalendar(Locale.CHINA);
-        cal1.setTime(date1);
-        cal2.setTime(date2);
-
-        long timeMillis1 = cal1.getTimeInMillis();
-        long timeMillis2 = cal2.getTimeInMillis();
-        long result = (timeMillis2 - timeMillis1) / (1000 * 60 * 60);
-        return (int) result;
+        return (int) DateMath.hoursBetween(date1.getTime(), date2.getTime());
     }
 
 
@@ -310,15 +345,7 @@ public class DateUtils {
     public static long getBetweenMins(Date date1, Date date2) {
         if (date1 == null || date2 == null)
             return 0;
-        Calendar cal1 = new GregorianCalendar(Locale.CHINA);
-        Calendar cal2 = new GregorianCalendar(Locale.CHINA);
-        cal1.setTime(date1);
-        cal2.setTime(date2);
-
-        long timeMillis1 = cal1.getTimeInMillis();
-        long timeMillis2 = cal2.getTimeInMillis();
-        long result = (timeMillis2 - timeMillis1) / (1000 * 60);
-        return result;
+        return DateMath.minutesBetween(date1.getTime(), date2.getTime());
     }
 
     /**
@@ -328,15 +355,7 @@ public class DateUtils {
      * @return result 相差的小时时间
      */
     public static int getBetweenHours(Date date) {
-        Calendar cal1 = new GregorianCalendar(Locale.CHINA);
-        Calendar cal2 = new GregorianCalendar(Locale.CHINA);
-        cal1.setTime(date);
-        cal2.setTime(new Date());
-
-        long timeMillis1 = cal1.getTimeInMillis();
-        long timeMillis2 = cal2.getTimeInMillis();
-        long result = (timeMillis2 - timeMillis1) / (1000 * 60 * 60);
-        return (int) result;
+        return (int) DateMath.hoursBetween(date.getTime(), System.currentTimeMillis());
     }
 
     /**
@@ -347,17 +366,12 @@ public class DateUtils {
      * @return 相差的月份间隔
      */
     public static int getBetweenMonths(Date bdate, Date edate) {
-        Calendar cal1 = new GregorianCalendar(Locale.CHINA);
-        Calendar cal2 = new GregorianCalendar(Locale.CHINA);
-        cal1.setTime(bdate);
-        cal2.setTime(edate);
-        return cal2.get(Calendar.MONTH) - cal1.get(Calendar.MONTH)
-                + (cal2.get(Calendar.YEAR) - cal1.get(Calendar.YEAR)) * 12;
+        return DateMath.monthsBetween(bdate.getTime(), edate.getTime());
     }
 
     public static int getBetweenMonths(String bdate, String edate, String format) throws Exception {
-        SimpleDateFormat sdf = new SimpleDateFormat(format);
-        return getBetweenMonths(sdf.parse(bdate), sdf.parse(edate));
+        CachedDateFormat sdf = DateFormatCache.getDefault().get(format);
+        return DateMath.monthsBetween(sdf.parse(bdate).getTime(), sdf.parse(edate).getTime());
     }
 
     /**
@@ -394,14 +408,8 @@ public class DateUtils {
      */
     public static long getBetweenDays(String dateString) {
         try {
-            java.util.Date dt1 = DateUtils.format(DateUtils.toDate("yyyy-MM-dd", dateString), "yyyy-MM-dd hh:mm:ss");
-            java.util.Date dt2 = new java.text.SimpleDateFormat("yyyy-MM-dd hh:mm:ss").parse(DateUtils.date2String(DateUtils.getCurrentDate(), "yyyy-MM-dd hh:mm:ss"));
-            Calendar t1 = Calendar.getInstance();
-            Calendar t2 = Calendar.getInstance();
-            t1.setTime(dt1);
-            t2.setTime(dt2);
-            long temp = (t2.getTimeInMillis() - t1.getTimeInMillis()) / (1000 * 60 * 60 * 24);
-            return temp;
+            long day = DateMath.localEpochDay(DateCodec.parseEpochMillis(DateLayout.DATE, dateString));
+            return DateMath.today() - day;
         } catch (ParseException e) {
             e.printStackTrace();
             return -1;
@@ -416,14 +424,9 @@ public class DateUtils {
      */
     public static long getBetweenDays(String startDate, String endDate) {
         try {
-            java.util.Date dt1 = DateUtils.format(DateUtils.toDate("yyyy-MM-dd", startDate), "yyyy-MM-dd hh:mm:ss");
-            java.util.Date dt2 = DateUtils.format(DateUtils.toDate("yyyy-MM-dd", endDate), "yyyy-MM-dd hh:mm:ss");
-            Calendar t1 = Calendar.getInstance();
-            Calendar t2 = Calendar.getInstance();
-            t1.setTime(dt1);
-            t2.setTime(dt2);
-            long temp = (t2.getTimeInMillis() - t1.getTimeInMillis()) / (1000 * 60 * 60 * 24);
-            return temp;
+            long day1 = DateMath.localEpochDay(DateCodec.parseEpochMillis(DateLayout.DATE, startDate));
+            long day2 = DateMath.localEpochDay(DateCodec.parseEpochMillis(DateLayout.DATE, endDate));
+            return day2 - day1;
         } catch (ParseException e) {
             e.printStackTrace();
             return -1;
@@ -439,15 +442,10 @@ public class DateUtils {
      */
     public static int getBetweenHours(String dateA, String dateB) {
         long dayNumber = 0;
-        //1小时=60分钟=3600秒=3600000
-        //long mins = 60L * 1000L;
-        long hours = 3600000;
-        //long day= 24L * 60L * 60L * 1000L;计算天数之差
-        SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
         try {
-            java.util.Date d1 = df.parse(dateA);
-            java.util.Date d2 = df.parse(dateB);
-            dayNumber = (d2.getTime() - d1.getTime()) / hours;
+            long d1 = DateCodec.parseEpochMillis(DateLayout.DATE_TIME, dateA);
+            long d2 = DateCodec.parseEpochMillis(DateLayout.DATE_TIME, dateB);
+            dayNumber = DateMath.hoursBetween(d1, d2);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -462,25 +460,12 @@ public class DateUtils {
      * @return long
      */
     public static long DateDays(String date1, String date2) {
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
-        long myTime;
-        Date aDate2;
-        Date aDate;
-        long myTime2;
         long days = 0;
         try {
-            aDate = formatter.parse(date1);// 任意日期，包括当前日期
-            myTime = (aDate.getTime() / 1000);
-            // SimpleDateFormat formatter =new SimpleDateFormat("yyyy-MM-dd");
-            aDate2 = formatter.parse(date2);// 任意日期，包括当前日期
-            myTime2 = (aDate2.getTime() / 1000);
-
-            if (myTime > myTime2) {
-                days = (myTime - myTime2) / (1 * 60 * 60 * 24);
-            } else {
-                days = (myTime2 - myTime) / (1 * 60 * 60 * 24);
-            }
-
+            // 任意日期，包括当前日期
+            long myDay = DateMath.localEpochDay(DateCodec.parseEpochMillis(DateLayout.DATE, date1));
+            long myDay2 = DateMath.localEpochDay(DateCodec.parseEpochMillis(DateLayout.DATE, date2));
+            days = Math.abs(myDay2 - myDay);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -518,25 +503,7 @@ public class DateUtils {
      */
     public static String getSystemDate(int rtype) {
         try {
-            Calendar cal = Calendar.getInstance();
-            String module = "yyyy-MM-dd";
-            if (rtype == 2) {
-                module = "yyyyMMdd";
-            }
-            if (rtype == 3) {
-                module = "yyyy-MM-dd HH:mm:ss";
-            }
-            if (rtype == 4) {
-                module = "yyyy/MM/dd HH:mm:ss";
-            }
-            SimpleDateFormat formatter1 = new SimpleDateFormat(module);
-            String fld_date = formatter1.format(cal.getTime());
-            if (rtype == 0)
-                return fld_date;
-            else if (rtype == 1)
-                return "'" + fld_date + "'"; // sql server
-            else
-                return fld_date;
+            return clock.getSystemDate(rtype);
         } catch (Exception e) {
 
         }
@@ -574,6 +541,33 @@ public class DateUtils {
         return addDate;
     }
 
+    /**
+     * <p>在原有的日期上加减N个工作日，时分秒保持不变。</p>
+     *
+     * @param date     所要添加的日期
+     * @param leng     工作日数，负数为向前
+     * @param calendar 工作日历
+     * @return Date
+     */
+    public static Date getWorkDateAdd(Date date, int leng, BusinessCalendar calendar) {
+        int day = Math.toIntExact(DateMath.localEpochDay(date.getTime()));
+        return new Date(DateMath.addDays(date.getTime(), calendar.addBusinessDays(day, leng) - day));
+    }
+
+    /**
+     * <p>两个日期之间的工作日数，含开始日不含结束日，开始日晚于结束日时为负数。</p>
+     *
+     * @param bdate    开始日期
+     * @param edate    结束日期
+     * @param calendar 工作日历
+     * @return int
+     */
+    public static int getBetweenWorkDays(Date bdate, Date edate, BusinessCalendar calendar) {
+        int from = Math.toIntExact(DateMath.localEpochDay(bdate.getTime()));
+        int to = Math.toIntExact(DateMath.localEpochDay(edate.getTime()));
+        return calendar.countBusinessDays(from, to);
+    }
+
     /**
      * <p>获得一月中的最后一天。</p>
      *
@@ -582,18 +576,7 @@ public class DateUtils {
      * @return
      */
     public static String getLastDayOfMonth(String year, String month) {
-        Calendar cal = Calendar.getInstance();
-        // 年
-        cal.set(Calendar.YEAR, Integer.parseInt(year));
-        // 月，因为Calendar里的月是从0开始，所以要-1
-        cal.set(Calendar.MONTH, Integer.parseInt(month) - 1);
-        // 日，设为一号
-        cal.set(Calendar.DATE, 1);
-        // 月份加一，得到下个月的一号
-        cal.add(Calendar.MONTH, 1);
-        // 下一个月减一为本月最后一天
-        cal.add(Calendar.DATE, -1);
-        return String.valueOf(cal.get(Calendar.DAY_OF_MONTH));// 获得月末是几号
+        return String.valueOf(getLastDayOfMonth(Integer.parseInt(year), Integer.parseInt(month)));// 获得月末是几号
     }
 
 
@@ -607,6 +590,11 @@ public class DateUtils {
         Date date;
         String rdate = "";
         try {
+            long day = DateMath.localEpochDay(toEpochMillis(chargeDate));
+            if (DateCodec.isFastDay(day) && DateCodec.ymdOf((int) day) / 10000 < 9999) {
+                int year = DateCodec.ymdOf((int) day) / 10000 + 1;
+                return DateCodec.formatEpochDay(DateLayout.DATE, MonthTable.getDefault().firstDayOfYear(year));
+            }
             date = toDate(chargeDate);
             rdate = date2String(getDateAdd(date, 1, "yy"), "yyyy-MM-dd");
             rdate = rdate.substring(0, 4) + "-01-01";
@@ -627,6 +615,14 @@ public class DateUtils {
         Date date;
         String rdate = "";
         try {
+            long day = DateMath.localEpochDay(toEpochMillis(chargeDate));
+            if (DateCodec.isFastDay(day) && DateCodec.isFastDay(day + 31)) {
+                int ymd = DateCodec.ymdOf((int) day);
+                int month = ymd / 100 % 100;
+                int year = month == 12 ? ymd / 10000 + 1 : ymd / 10000;
+                return DateCodec.formatEpochDay(DateLayout.DATE,
+                        MonthTable.getDefault().firstDayOfMonth(year, month % 12 + 1));
+            }
             date = toDate(chargeDate);
             rdate = date2String(getDateAdd(date, 1, "mm"), "yyyy-MM-dd");
             rdate = rdate.substring(0, rdate.length() - 2) + "01";
@@ -643,10 +639,7 @@ public class DateUtils {
      * @return
      */
     public static String getDateYear(String strDate) throws ParseException {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-        Calendar date = Calendar.getInstance();
-        date.setTime(sdf.parse(strDate));
-        return String.valueOf(date.get(Calendar.YEAR));
+        return String.valueOf(getDateField(strDate, Calendar.YEAR));
 
     }
 
@@ -657,13 +650,29 @@ public class DateUtils {
      * @return
      */
     public static String getDateMonth(String strDate) throws ParseException {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-        Calendar date = Calendar.getInstance();
-        date.setTime(sdf.parse(strDate));
-        return String.valueOf(date.get(Calendar.MONTH) + 1);
+        return String.valueOf(getDateField(strDate, Calendar.MONTH));
 
     }
 
+    /**
+     * <p>按 yyyy-MM-dd 解析日期并取出年、月（从1开始）或日。</p>
+     * <pre>1583年以前（儒略历）及9999年以后的日期交由Calendar计算</pre>
+     */
+    private static int getDateField(String strDate, int field) throws ParseException {
+        long millis = DateCodec.parseEpochMillis(DateLayout.DATE, strDate);
+        long day = Math.floorDiv(DateCodec.utcToLocal(millis), DateCodec.MILLIS_PER_DAY);
+        if (!DateCodec.isFastDay(day)) {
+            Calendar date = Calendar.getInstance();
+            date.setTimeInMillis(millis);
+            return field == Calendar.MONTH ? date.get(field) + 1 : date.get(field);
+        }
+        int ymd = DateCodec.ymdOf((int) day);
+        if (field == Calendar.YEAR) {
+            return ymd / 10000;
+        }
+        return field == Calendar.MONTH ? ymd / 100 % 100 : ymd % 100;
+    }
+
     public static Integer getDateDiffMonth(String firstMonth, String secondMonth) throws ParseException {
         Integer f = Integer.parseInt(getDateMonth(firstMonth));
         Integer s = Integer.parseInt(getDateMonth(secondMonth));
@@ -689,10 +698,7 @@ public class DateUtils {
      * @return
      */
     public static String getDateDay(String strDate) throws ParseException {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-        Calendar date = Calendar.getInstance();
-        date.setTime(sdf.parse(strDate));
-        return String.valueOf(date.get(Calendar.DAY_OF_MONTH));
+        return String.valueOf(getDateField(strDate, Calendar.DAY_OF_MONTH));
     }
 
     /**
@@ -704,16 +710,15 @@ public class DateUtils {
      */
     public static int getCompareDate(String s1, String s2) {
         int flag = 0;
-        java.text.DateFormat df = new java.text.SimpleDateFormat("yyyy-MM-dd");
-        java.util.Calendar c1 = java.util.Calendar.getInstance();
-        java.util.Calendar c2 = java.util.Calendar.getInstance();
+        long c1 = System.currentTimeMillis();
+        long c2 = c1;
         try {
-            c1.setTime(df.parse(s1));
-            c2.setTime(df.parse(s2));
+            c1 = DateCodec.parseEpochMillis(DateLayout.DATE, s1);
+            c2 = DateCodec.parseEpochMillis(DateLayout.DATE, s2);
         } catch (java.text.ParseException e) {
             log.info("日期格式不正确");
         }
-        int result = c1.compareTo(c2);
+        int result = Long.compare(c1, c2);
         if (result == 0) {
             flag = 0;
             log.info("c1相等c2");
@@ -729,7 +734,7 @@ public class DateUtils {
 
     public static int getCompareDate(String s1, String s2, String formatStr) {
         int flag = 0;
-        java.text.DateFormat df = new java.text.SimpleDateFormat(formatStr);
+        CachedDateFormat df = DateFormatCache.getDefault().get(formatStr);
         java.util.Calendar c1 = java.util.Calendar.getInstance();
         java.util.Calendar c2 = java.util.Calendar.getInstance();
         try {
@@ -755,6 +760,8 @@ public class DateUtils {
     /**
      * days360计算天数差
      * 返回两时间间隔天数 bdate--开始时间字符串 edate--结束时间字符串
+     * <p>日期按宽松规则解析，越界的日向后进位（如 2023-02-29 视为 2023-03-01），日取进位后的值，
+     * 间隔月数仍按字符串中的年月计算，与旧版结果一致。1583年以前（儒略历）或9999年以后的日期按Calendar计算。</p>
      *
      * @param strbdate
      * @param stredate
@@ -762,44 +769,24 @@ public class DateUtils {
      * @return dateDiff
      */
     public static long days360(String strbdate, String stredate, Integer type) {
-        Calendar bdate = Calendar.getInstance();
-        Calendar edate = Calendar.getInstance();
         long datediff = 0;
         try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-            bdate.setTime(sdf.parse(strbdate));
-            edate.setTime(sdf.parse(stredate));
-            int monthDiff = getMonthDiff(strbdate, stredate);
-            int bday = bdate.get(Calendar.DAY_OF_MONTH);
-            int eday = edate.get(Calendar.DAY_OF_MONTH);
-            int bmonth = bdate.get(Calendar.MONTH) + 1;
-            int byear = bdate.get(Calendar.YEAR);
-            int blastday = getLastDayOfMonth(byear, bmonth);
-            if (type != null && type == 0) {
-                //美国方法：如果起始日期是一个月的最后一天，则将这一天视为同一个月份的第30天；
-                //如果终止日期是一个月的第31天、且起始日期早于一个月的第30天，
-                //则将这个终止日期视为下一个月的第1天，否则终止日期等于同一个月的第30天。
-                if (bday == blastday) {
-                    bday = 30;
-                }
-                if (eday == 31) {
-                    if (bday == 30) {
-                        eday = 30;
-                    } else {
-                        eday = 1;
-                        monthDiff++;
-                    }
-                }
-            } else {
-                //欧洲方法：无论起始日期还是终止日期是一个月的第31天，都视为同一个月份的第30天
-                if (bday == 31) {
-                    bday = 30;
-                }
-                if (eday == 31) {
-                    eday = 30;
-                }
+            int bdate = DateCodec.parseEpochDay(DateLayout.DATE, strbdate);
+            int edate = DateCodec.parseEpochDay(DateLayout.DATE, stredate);
+            if (!DateCodec.isFastDay(bdate) || !DateCodec.isFastDay(edate)) {
+                return days360Calendar(strbdate, stredate, type);
+            }
+            //0:美国方法，其余为欧洲方法
+            DayCount dayCount = type != null && type == 0 ? DayCounts.THIRTY_360_US : DayCounts.THIRTY_E_360;
+            datediff = dayCount.days(bdate, edate);
+            //越界进位后的年月与字符串不同时，按字符串中的年月补足相差的月数
+            int bymd = DateCodec.ymdOf(bdate);
+            int eymd = DateCodec.ymdOf(edate);
+            int monthDiff = (eymd / 10000 - bymd / 10000) * 12 + (eymd / 100 % 100 - bymd / 100 % 100);
+            int textMonthDiff = getMonthDiff(strbdate, stredate);
+            if (textMonthDiff != monthDiff) {
+                datediff += 30L * (textMonthDiff - monthDiff);
             }
-            datediff = eday + (30 - bday) + (monthDiff - 1) * 30;
             return datediff;
         } catch (Exception e) {
             e.printStackTrace();
@@ -807,6 +794,42 @@ public class DateUtils {
         return datediff;
     }
 
+    /**
+     * 儒略历及超长年份的days360，纪元日与年月日的换算交给Calendar
+     */
+    private static long days360Calendar(String strbdate, String stredate, Integer type) throws ParseException {
+        CachedDateFormat sdf = DateFormatCache.getDefault().get("yyyy-MM-dd");
+        Calendar bdate = Calendar.getInstance();
+        Calendar edate = Calendar.getInstance();
+        bdate.setTime(sdf.parse(strbdate));
+        edate.setTime(sdf.parse(stredate));
+        int monthDiff = getMonthDiff(strbdate, stredate);
+        int bday = bdate.get(Calendar.DAY_OF_MONTH);
+        int eday = edate.get(Calendar.DAY_OF_MONTH);
+        int blastday = getLastDayOfMonth(bdate.get(Calendar.YEAR), bdate.get(Calendar.MONTH) + 1);
+        if (type != null && type == 0) {
+            if (bday == blastday) {
+                bday = 30;
+            }
+            if (eday == 31) {
+                if (bday == 30) {
+                    eday = 30;
+                } else {
+                    eday = 1;
+                    monthDiff++;
+                }
+            }
+        } else {
+            if (bday == 31) {
+                bday = 30;
+            }
+            if (eday == 31) {
+                eday = 30;
+            }
+        }
+        return eday + (30 - bday) + (monthDiff - 1) * 30L;
+    }
+
     /**
      * 得到两时间的间隔月数
      *
@@ -826,6 +849,12 @@ public class DateUtils {
     }
 
     private static int getLastDayOfMonth(int year, int month) {
+        // 月份越界时按Calendar的宽松规则进位到相邻年份
+        long months = year * 12L + month - 1;
+        long y = Math.floorDiv(months, 12);
+        if (year >= 1583 && y >= 1583 && y <= 9999) {
+            return MonthTable.getDefault().lengthOfMonth((int) y, Math.floorMod(month - 1, 12) + 1);
+        }
         Calendar cal = Calendar.getInstance();
         cal.set(Calendar.YEAR, year);
         cal.set(Calendar.MONTH, month);
@@ -0,0 +1,56 @@
+package date;
+
+/**
+ * @PACKAGE : date
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 15:10
+ * @Desc : 计息天数惯例
+ * <p>起止日期均以纪元日表示；实现类应为无状态单例，可在线程间共享。
+ * 年化比例以定点长整数返回，即 比例 × {@link #YEAR_FRACTION_SCALE}，四舍五入。
+ * 常用惯例见 {@link DayCounts}。</p>
+ * @History :
+ */
+public interface DayCount {
+
+    /**
+     * 年化比例的定点倍数，保留12位小数
+     */
+    long YEAR_FRACTION_SCALE = 1_000_000_000_000L;
+
+    /**
+     * <p>惯例名称，如 ACT/360。</p>
+     *
+     * @return String
+     */
+    String getName();
+
+    /**
+     * <p>按本惯例计算两日期之间的计息天数。</p>
+     *
+     * @param startDay 开始日期的纪元日
+     * @param endDay   结束日期的纪元日
+     * @return long
+     */
+    long days(int startDay, int endDay);
+
+    /**
+     * <p>按本惯例计算两日期之间的年化比例。</p>
+     *
+     * @param startDay 开始日期的纪元日
+     * @param endDay   结束日期的纪元日
+     * @return long 年化比例 × {@link #YEAR_FRACTION_SCALE}
+     */
+    long yearFraction(int startDay, int endDay);
+
+    /**
+     * <p>计算一组计息日期相邻两期的年化比例，out[i] 为 schedule[i] 至 schedule[i+1] 的比例。</p>
+     *
+     * @param schedule 按先后排列的计息日期纪元日
+     * @param out      结果，长度不小于 schedule.length - 1
+     */
+    default void yearFractions(int[] schedule, long[] out) {
+        for (int i = 0; i + 1 < schedule.length; i++) {
+            out[i] = yearFraction(schedule[i], schedule[i + 1]);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package date;
+
+import java.text.ParseException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @PACKAGE : date
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 14:30
+ * @Desc : 批量计息天数计算
+ * <p>对以纪元日表示的起止日期列逐对计算天数，结果写入调用方提供的long数组。
+ * 支持30/360美式、30/360欧式（与 {@link DateUtils#days360(String, String, Integer)} 一致）、实际天数，
+ * 以及任意 {@link DayCount} 惯例下的天数和年化比例。数组较大时可选用fork/join并行计算，各段互不重叠，无需同步。</p>
+ * @History :
+ */
+public final class DayCountBatch {
+
+    /**
+     * 并行模式下每个任务处理的最少元素个数，低于此值直接在当前线程计算
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private DayCountBatch() {
+    }
+
+    /**
+     * <p>30/360计算两纪元日之间的天数。</p>
+     * <p>纪元日按公历（proleptic Gregorian）换算年月日，1583年以前的日期与按儒略历的Calendar结果不同，
+     * 须与 Calendar 一致时，1583-01-01 以前的日期由调用方另行处理；批量方法同此。</p>
+     *
+     * @param start    开始日期的纪元日
+     * @param end      结束日期的纪元日
+     * @param european true:欧式算法，false：美式算法
+     * @return long
+     */
+    public static long days360(int start, int end, boolean european) {
+        int b = DateCodec.ymdOf(start);
+        int e = DateCodec.ymdOf(end);
+        int byear = b / 10000;
+        int bmonth = b / 100 % 100;
+        int bday = b % 100;
+        int eday = e % 100;
+        int monthDiff = (e / 10000 - byear) * 12 + (e / 100 % 100 - bmonth);
+        if (european) {
+            //欧洲方法：无论起始日期还是终止日期是一个月的第31天，都视为同一个月份的第30天
+            bday = bday == 31 ? 30 : bday;
+            eday = eday == 31 ? 30 : eday;
+        } else {
+            //美国方法：起始日期是月末视为30日；终止日期为31日且起始日期为30日时视为30日，
+            //否则视为下月1日，与保留31日的天数相同
+            bday = bday == DateCodec.lengthOfMonth(byear, bmonth) ? 30 : bday;
+            eday = eday == 31 && bday == 30 ? 30 : eday;
+        }
+        return eday + (30 - bday) + (monthDiff - 1) * 30L;
+    }
+
+    /**
+     * <p>30/360批量计算天数。</p>
+     *
+     * @param start    开始日期纪元日列
+     * @param end      结束日期纪元日列
+     * @param out      结果列，长度不小于start
+     * @param european true:欧式算法，false：美式算法
+     */
+    public static void days360(int[] start, int[] end, long[] out, boolean european) {
+        days360(start, end, out, european, false);
+    }
+
+    /**
+     * <p>30/360批量计算天数。</p>
+     *
+     * @param start    开始日期纪元日列
+     * @param end      结束日期纪元日列
+     * @param out      结果列，长度不小于start
+     * @param european true:欧式算法，false：美式算法
+     * @param parallel 是否使用fork/join并行计算
+     */
+    public static void days360(int[] start, int[] end, long[] out, boolean european, boolean parallel) {
+        days(european ? DayCounts.THIRTY_E_360 : DayCounts.THIRTY_360_US, start, end, out, parallel);
+    }
+
+    /**
+     * <p>批量计算实际天数（结束减开始）。</p>
+     *
+     * @param start 开始日期纪元日列
+     * @param end   结束日期纪元日列
+     * @param out   结果列，长度不小于start
+     */
+    public static void actualDays(int[] start, int[] end, long[] out) {
+        actualDays(start, end, out, false);
+    }
+
+    /**
+     * <p>批量计算实际天数（结束减开始）。</p>
+     *
+     * @param start    开始日期纪元日列
+     * @param end      结束日期纪元日列
+     * @param out      结果列，长度不小于start
+     * @param parallel 是否使用fork/join并行计算
+     */
+    public static void actualDays(int[] start, int[] end, long[] out, boolean parallel) {
+        days(DayCounts.ACT_365F, start, end, out, parallel);
+    }
+
+    /**
+     * <p>按指定惯例批量计算计息天数。</p>
+     *
+     * @param convention 计息天数惯例
+     * @param start      开始日期纪元日列
+     * @param end        结束日期纪元日列
+     * @param out        结果列，长度不小于start
+     * @param parallel   是否使用fork/join并行计算
+     */
+    public static void days(DayCount convention, int[] start, int[] end, long[] out, boolean parallel) {
+        run(convention, false, start, end, out, parallel);
+    }
+
+    /**
+     * <p>按指定惯例批量计算年化比例，结果为 比例 × {@link DayCount#YEAR_FRACTION_SCALE}。</p>
+     *
+     * @param convention 计息天数惯例
+     * @param start      开始日期纪元日列
+     * @param end        结束日期纪元日列
+     * @param out        结果列，长度不小于start
+     * @param parallel   是否使用fork/join并行计算
+     */
+    public static void yearFractions(DayCount convention, int[] start, int[] end, long[] out, boolean parallel) {
+        run(convention, true, start, end, out, parallel);
+    }
+
+    /**
+     * <p>将日期字符串列按指定布局解析为纪元日列。</p>
+     *
+     * @param column 日期字符串列
+     * @param layout 日期布局
+     * @param out    纪元日列，长度不小于column
+     * @throws ParseException 任一元素无法解析时抛出，errorOffset为该元素下标
+     */
+    public static void toEpochDays(CharSequence[] column, DateLayout layout, int[] out) throws ParseException {
+        if (out.length < column.length) {
+            throw new IllegalArgumentException("The out array is shorter than the column");
+        }
+        for (int i = 0; i < column.length; i++) {
+            try {
+                out[i] = DateCodec.parseEpochDay(layout, column[i]);
+            } catch (ParseException e) {
+                throw new ParseException("Unparseable date: \"" + column[i] + "\"", i);
+            }
+        }
+    }
+
+    private static void run(DayCount convention, boolean fraction, int[] start, int[] end, long[] out,
+                            boolean parallel) {
+        int n = start.length;
+        if (end.length != n || out.length < n) {
+            throw new IllegalArgumentException("The start, end and out arrays must have matching lengths");
+        }
+        if (parallel && n > PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new Task(convention, fraction, start, end, out, 0, n));
+        } else {
+            compute(convention, fraction, start, end, out, 0, n);
+        }
+    }
+
+    /**
+     * 常用惯例的天数直接展开为循环，其余经接口调用
+     */
+    private static void compute(DayCount convention, boolean fraction, int[] start, int[] end, long[] out,
+                                int from, int to) {
+        if (fraction) {
+            for (int i = from; i < to; i++) {
+                out[i] = convention.yearFraction(start[i], end[i]);
+            }
+        } else if (convention == DayCounts.ACT_360 || convention == DayCounts.ACT_365F
+                || convention == DayCounts.ACT_ACT_ISDA) {
+            for (int i = from; i < to; i++) {
+                out[i] = (long) end[i] - start[i];
+            }
+        } else if (convention == DayCounts.THIRTY_E_360) {
+            for (int i = from; i < to; i++) {
+                out[i] = days360(start[i], end[i], true);
+            }
+        } else if (convention == DayCounts.THIRTY_360_US) {
+            for (int i = from; i < to; i++) {
+                out[i] = days360(start[i], end[i], false);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                out[i] = convention.days(start[i], end[i]);
+            }
+        }
+    }
+
+    private static final class Task extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final DayCount convention;
+
+        private final boolean fraction;
+
+        private final int[] start;
+
+        private final int[] end;
+
+        private final long[] out;
+
+        private final int from;
+
+        private final int to;
+
+        Task(DayCount convention, boolean fraction, int[] start, int[] end, long[] out, int from, int to) {
+            this.convention = convention;
+            this.fraction = fraction;
+            this.start = start;
+            this.end = end;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                DayCountBatch.compute(convention, fraction, start, end, out, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Task(convention, fraction, start, end, out, from, mid),
+                    new Task(convention, fraction, start, end, out, mid, to));
+        }
+    }
+}
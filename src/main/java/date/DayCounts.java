@@ -0,0 +1,162 @@
+package date;
+
+/**
+ * @PACKAGE : date
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 15:20
+ * @Desc : 常用计息天数惯例
+ * <p>各惯例均为无状态枚举单例，直接在纪元日上计算，不创建任何对象。
+ * 定价等场景应在启动时用 {@link #of(String)} 解析一次惯例名称并持有返回的对象，而不是每次调用时解析。</p>
+ * @History :
+ */
+public enum DayCounts implements DayCount {
+
+    /**
+     * 30/360 美式，与 {@link DateUtils#days360(String, String, Integer)} 的美式算法一致：
+     * 起始日期为月末（含2月末）视为30日；终止日期为31日且起始日期为30日时视为30日
+     */
+    THIRTY_360_US("30/360 US") {
+        @Override
+        public long days(int startDay, int endDay) {
+            return DayCountBatch.days360(startDay, endDay, false);
+        }
+
+        @Override
+        public long yearFraction(int startDay, int endDay) {
+            return ratio(days(startDay, endDay), 360);
+        }
+    },
+
+    /**
+     * 30E/360（欧式），起止日期为31日时均视为30日
+     */
+    THIRTY_E_360("30E/360") {
+        @Override
+        public long days(int startDay, int endDay) {
+            return DayCountBatch.days360(startDay, endDay, true);
+        }
+
+        @Override
+        public long yearFraction(int startDay, int endDay) {
+            return ratio(days(startDay, endDay), 360);
+        }
+    },
+
+    /**
+     * 30E/360 ISDA，起止日期为月末（含2月末）时均视为30日。
+     * 终止日为到期日且为2月末时不作调整的例外不在此处理
+     */
+    THIRTY_E_360_ISDA("30E/360 ISDA") {
+        @Override
+        public long days(int startDay, int endDay) {
+            int b = DateCodec.ymdOf(startDay);
+            int e = DateCodec.ymdOf(endDay);
+            int byear = b / 10000;
+            int bmonth = b / 100 % 100;
+            int eyear = e / 10000;
+            int emonth = e / 100 % 100;
+            int bday = b % 100 == DateCodec.lengthOfMonth(byear, bmonth) ? 30 : b % 100;
+            int eday = e % 100 == DateCodec.lengthOfMonth(eyear, emonth) ? 30 : e % 100;
+            return 360L * (eyear - byear) + 30L * (emonth - bmonth) + (eday - bday);
+        }
+
+        @Override
+        public long yearFraction(int startDay, int endDay) {
+            return ratio(days(startDay, endDay), 360);
+        }
+    },
+
+    /**
+     * ACT/360，实际天数除以360
+     */
+    ACT_360("ACT/360") {
+        @Override
+        public long days(int startDay, int endDay) {
+            return (long) endDay - startDay;
+        }
+
+        @Override
+        public long yearFraction(int startDay, int endDay) {
+            return ratio((long) endDay - startDay, 360);
+        }
+    },
+
+    /**
+     * ACT/365F，实际天数除以365
+     */
+    ACT_365F("ACT/365F") {
+        @Override
+        public long days(int startDay, int endDay) {
+            return (long) endDay - startDay;
+        }
+
+        @Override
+        public long yearFraction(int startDay, int endDay) {
+            return ratio((long) endDay - startDay, 365);
+        }
+    },
+
+    /**
+     * ACT/ACT ISDA，按自然年拆分，闰年部分除以366，其余除以365
+     */
+    ACT_ACT_ISDA("ACT/ACT ISDA") {
+        @Override
+        public long days(int startDay, int endDay) {
+            return (long) endDay - startDay;
+        }
+
+        @Override
+        public long yearFraction(int startDay, int endDay) {
+            if (startDay > endDay) {
+                return -yearFraction(endDay, startDay);
+            }
+            int byear = DateCodec.ymdOf(startDay) / 10000;
+            int eyear = DateCodec.ymdOf(endDay) / 10000;
+            long blen = DateCodec.isLeapYear(byear) ? 366 : 365;
+            if (byear == eyear) {
+                return ratio((long) endDay - startDay, blen);
+            }
+            long elen = DateCodec.isLeapYear(eyear) ? 366 : 365;
+            // 首年剩余天数/首年天数 + 末年已过天数/末年天数 + 中间整年数，通分后一次舍入
+            long head = DateCodec.epochDay(byear + 1, 1, 1) - startDay;
+            long tail = endDay - DateCodec.epochDay(eyear, 1, 1);
+            return (eyear - byear - 1) * YEAR_FRACTION_SCALE + ratio(head * elen + tail * blen, blen * elen);
+        }
+    };
+
+    private final String name;
+
+    DayCounts(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * <p>按名称查找惯例，不区分大小写，找不到时返回null。</p>
+     *
+     * @param name 惯例名称，如 ACT/360、30E/360
+     * @return DayCounts
+     */
+    public static DayCounts of(String name) {
+        for (DayCounts dayCount : values()) {
+            if (dayCount.name.equalsIgnoreCase(name)) {
+                return dayCount;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 定点比例 num/den × YEAR_FRACTION_SCALE，按绝对值四舍五入
+     */
+    static long ratio(long num, long den) {
+        long q = num / den;
+        long r = Math.abs(num % den);
+        long frac = (r * YEAR_FRACTION_SCALE * 2 + den) / (den * 2);
+        return q * YEAR_FRACTION_SCALE + (num < 0 ? -frac : frac);
+    }
+}
@@ -0,0 +1,153 @@
+package date;
+
+/**
+ * @PACKAGE : date
+ * @Author : zhuxianfei
+ * @Date : 2026/10/17 17:50
+ * @Desc : 月份边界查找表
+ * <p>在给定年份范围内预先计算每个月的天数及月初纪元日（即截至该月的累计天数），
+ * 月初、月末、年初等边界的计算只需一次数组下标访问。范围外的年份按公历公式即时计算，结果相同，只是稍慢。
+ * 创建后不可变，可在线程间共享。</p>
+ * <p>默认表覆盖1900-2199年，可通过系统属性 date.monthTable.range（如 1583-9999）调整。</p>
+ * @History :
+ */
+public final class MonthTable {
+
+    private static final MonthTable DEFAULT = createDefault();
+
+    private final int firstYear;
+
+    private final int lastYear;
+
+    /**
+     * 各月天数，下标为 (年-firstYear)*12+月-1
+     */
+    private final byte[] lengths;
+
+    /**
+     * 各月1日的纪元日，末尾多存一个 lastYear+1 年1月1日
+     */
+    private final int[] monthStart;
+
+    public MonthTable(int firstYear, int lastYear) {
+        if (firstYear > lastYear) {
+            throw new IllegalArgumentException("The firstYear must not be after the lastYear");
+        }
+        int months = (lastYear - firstYear + 1) * 12;
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        this.lengths = new byte[months];
+        this.monthStart = new int[months + 1];
+        int day = DateCodec.daysFromCivil(firstYear, 1, 1);
+        for (int i = 0; i < months; i++) {
+            int length = DateCodec.lengthOfMonth(firstYear + i / 12, i % 12 + 1);
+            lengths[i] = (byte) length;
+            monthStart[i] = day;
+            day += length;
+        }
+        monthStart[months] = day;
+    }
+
+    /**
+     * <p>默认查找表。</p>
+     *
+     * @return MonthTable
+     */
+    public static MonthTable getDefault() {
+        return DEFAULT;
+    }
+
+    private static MonthTable createDefault() {
+        String range = System.getProperty("date.monthTable.range");
+        if (range != null) {
+            int sep = range.indexOf('-', 1);
+            try {
+                return new MonthTable(Integer.parseInt(range.substring(0, sep).trim()),
+                        Integer.parseInt(range.substring(sep + 1).trim()));
+            } catch (RuntimeException e) {
+                // 配置有误时使用默认范围
+            }
+        }
+        return new MonthTable(1900, 2199);
+    }
+
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    public int getLastYear() {
+        return lastYear;
+    }
+
+    /**
+     * <p>年份是否在查找表范围内。</p>
+     *
+     * @param year 年
+     * @return boolean
+     */
+    public boolean contains(int year) {
+        return year >= firstYear && year <= lastYear;
+    }
+
+    /**
+     * <p>某年某月的天数。</p>
+     *
+     * @param year  年
+     * @param month 月，从1开始
+     * @return int
+     */
+    public int lengthOfMonth(int year, int month) {
+        if (contains(year)) {
+            return lengths[index(year, month)];
+        }
+        return DateCodec.lengthOfMonth(year, month);
+    }
+
+    /**
+     * <p>某年某月1日的纪元日。</p>
+     *
+     * @param year  年
+     * @param month 月，从1开始
+     * @return int
+     */
+    public int firstDayOfMonth(int year, int month) {
+        if (contains(year)) {
+            return monthStart[index(year, month)];
+        }
+        return DateCodec.daysFromCivil(year, month, 1);
+    }
+
+    /**
+     * <p>某年某月最后一天的纪元日。</p>
+     *
+     * @param year  年
+     * @param month 月，从1开始
+     * @return int
+     */
+    public int lastDayOfMonth(int year, int month) {
+        if (contains(year)) {
+            return monthStart[index(year, month) + 1] - 1;
+        }
+        return DateCodec.daysFromCivil(year, month, DateCodec.lengthOfMonth(year, month));
+    }
+
+    /**
+     * <p>某年1月1日的纪元日。</p>
+     *
+     * @param year 年
+     * @return int
+     */
+    public int firstDayOfYear(int year) {
+        if (year >= firstYear && year <= lastYear + 1) {
+            return monthStart[(year - firstYear) * 12];
+        }
+        return DateCodec.daysFromCivil(year, 1, 1);
+    }
+
+    private int index(int year, int month) {
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Invalid month: " + month);
+        }
+        return (year - firstYear) * 12 + month - 1;
+    }
+}
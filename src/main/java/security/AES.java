@@ -2,12 +2,15 @@ package security;
 
 import lombok.extern.log4j.Log4j;
 
-import java.security.SecureRandom;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
 
 import javax.crypto.Cipher;
-import javax.crypto.KeyGenerator;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -24,6 +27,20 @@ public class AES {
 
     private static final String KEY_AES = "AES";
 
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * 批量加解密时每个线程一次处理的个数
+     */
+    private static final int BATCH_CHUNK = 1024;
+
+    /**
+     * 每批结束后线程保留的缓冲上限，处理过更大的值后缩回初始大小
+     */
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<BatchBuffer> BATCH_BUFFER = ThreadLocal.withInitial(BatchBuffer::new);
+
     /**
      * 加密
      *
@@ -50,6 +67,276 @@ public class AES {
         return doAES(data, key, Cipher.DECRYPT_MODE);
     }
 
+    /**
+     * 批量加密，第i个结果与 encrypt(data[i], key) 相同
+     * <p>密钥只派生一次，每个线程只取一次密码器，UTF-8编码、密文和16进制转换都使用线程复用的缓冲。</p>
+     *
+     * @param data
+     *            需要加密的内容，空白的元素结果为null
+     * @param key
+     *            加密密码
+     * @return
+     */
+    public static String[] encrypt(String[] data, String key) {
+        return encrypt(data, key, false);
+    }
+
+    /**
+     * 批量加密，第i个结果与 encrypt(data[i], key) 相同
+     *
+     * @param data
+     *            需要加密的内容，空白的元素结果为null
+     * @param key
+     *            加密密码
+     * @param parallel
+     *            是否按每批1024个分给多个线程并行加密
+     * @return
+     */
+    public static String[] encrypt(String[] data, String key, boolean parallel) {
+        String[] result = new String[data.length];
+        if (StringUtils.isBlank(key)) {
+            return result;
+        }
+        forEachChunk(data.length, parallel, (from, to) -> processRange(Cipher.ENCRYPT_MODE, key, from, to,
+                i -> !StringUtils.isBlank(data[i]), result, (cipher, buffer, i) -> {
+                    byte[] content = buffer.encode(data[i]);
+                    return buffer.encrypt(cipher, content, 0, buffer.length);
+                }));
+        return result;
+    }
+
+    public static List<String> encrypt(List<String> data, String key) {
+        return encrypt(data, key, false);
+    }
+
+    public static List<String> encrypt(List<String> data, String key, boolean parallel) {
+        return new ArrayList<>(Arrays.asList(encrypt(data.toArray(new String[0]), key, parallel)));
+    }
+
+    /**
+     * 按列存放的批量加密，第i个值为values中下标 [offsets[i], offsets[i+1]) 的UTF-8字节，
+     * 结果与 encrypt(第i个值, key) 相同；与字符串版本不同，空白的值同样加密
+     *
+     * @param values
+     *            各值的UTF-8字节依次存放的缓冲，可以是direct缓冲
+     * @param offsets
+     *            各值在values中的起始下标（绝对下标，与position无关），长度为值的个数加1；
+     *            须从不小于0开始单调不减，最后一个不超过 values.limit()，否则抛出IllegalArgumentException
+     * @param key
+     *            加密密码
+     * @param parallel
+     *            是否按每批1024个分给多个线程并行加密
+     * @return
+     */
+    public static String[] encrypt(ByteBuffer values, int[] offsets, String key, boolean parallel) {
+        checkOffsets(values, offsets);
+        String[] result = new String[Math.max(offsets.length - 1, 0)];
+        if (StringUtils.isBlank(key)) {
+            return result;
+        }
+        forEachChunk(result.length, parallel, (from, to) -> {
+            ByteBuffer view = values.hasArray() ? null : values.duplicate();
+            processRange(Cipher.ENCRYPT_MODE, key, from, to, i -> true, result,
+                    (cipher, buffer, i) -> encryptValue(cipher, buffer, values, view, offsets, i));
+        });
+        return result;
+    }
+
+    /**
+     * 批量解密，第i个结果与 decrypt(data[i], key) 相同
+     *
+     * @param data
+     *            待解密内容，空白或无法解密的元素结果为null
+     * @param key
+     *            解密密钥
+     * @return
+     */
+    public static String[] decrypt(String[] data, String key) {
+        return decrypt(data, key, false);
+    }
+
+    public static String[] decrypt(String[] data, String key, boolean parallel) {
+        String[] result = new String[data.length];
+        if (StringUtils.isBlank(key)) {
+            return result;
+        }
+        forEachChunk(data.length, parallel, (from, to) -> processRange(Cipher.DECRYPT_MODE, key, from, to,
+                i -> !StringUtils.isBlank(data[i]), result, (cipher, buffer, i) -> {
+                    byte[] content = parseHexStr2Byte(data[i]);
+                    byte[] output = buffer.output(cipher.getOutputSize(content.length));
+                    int n = cipher.doFinal(content, 0, content.length, output, 0);
+                    return new String(output, 0, n, StandardCharsets.UTF_8);
+                }));
+        return result;
+    }
+
+    public static List<String> decrypt(List<String> data, String key) {
+        return decrypt(data, key, false);
+    }
+
+    public static List<String> decrypt(List<String> data, String key, boolean parallel) {
+        return new ArrayList<>(Arrays.asList(decrypt(data.toArray(new String[0]), key, parallel)));
+    }
+
+    private static void checkOffsets(ByteBuffer values, int[] offsets) {
+        if (offsets.length == 0) {
+            return;
+        }
+        if (offsets[0] < 0) {
+            throw new IllegalArgumentException("The offsets[0] must not be negative: " + offsets[0]);
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            if (offsets[i] < offsets[i - 1]) {
+                throw new IllegalArgumentException("The offsets must be non-decreasing, offsets[" + i + "]="
+                        + offsets[i] + " < offsets[" + (i - 1) + "]=" + offsets[i - 1]);
+            }
+        }
+        int last = offsets[offsets.length - 1];
+        if (last > values.limit()) {
+            throw new IllegalArgumentException("The offsets[" + (offsets.length - 1) + "]=" + last
+                    + " exceeds the limit " + values.limit());
+        }
+    }
+
+    private interface Range {
+        void run(int from, int to);
+    }
+
+    private static void forEachChunk(int size, boolean parallel, Range range) {
+        int chunks = (size + BATCH_CHUNK - 1) / BATCH_CHUNK;
+        IntStream stream = IntStream.range(0, chunks);
+        if (parallel) {
+            stream = stream.parallel();
+        }
+        stream.forEach(c -> range.run(c * BATCH_CHUNK, Math.min(size, (c + 1) * BATCH_CHUNK)));
+    }
+
+    private interface Element {
+        String apply(Cipher cipher, BatchBuffer buffer, int i) throws Exception;
+    }
+
+    /**
+     * 处理 [from, to) 中present为真的元素，密码器在遇到第一个这样的元素时才取出；
+     * 单个元素出错时记录日志、结果为null，不影响其余元素
+     */
+    private static void processRange(int mode, String key, int from, int to, IntPredicate present, String[] result,
+                                     Element element) {
+        BatchBuffer buffer = BATCH_BUFFER.get();
+        CipherPool.Lease lease = null;
+        try {
+            for (int i = from; i < to; i++) {
+                if (!present.test(i)) {
+                    continue;
+                }
+                try {
+                    if (lease == null) {
+                        lease = CipherPool.getDefault().acquire(KEY_AES, mode, key);
+                    }
+                    result[i] = element.apply(lease.getCipher(), buffer, i);
+                } catch (Exception e) {
+                    log.error("AES 密文处理异常", e);
+                    // 出错后Cipher的状态未知，放回池中由下次取出时重新初始化
+                    if (lease != null) {
+                        lease.close();
+                        lease = null;
+                    }
+                }
+            }
+        } finally {
+            if (lease != null) {
+                lease.close();
+            }
+            buffer.trim();
+        }
+    }
+
+    private static String encryptValue(Cipher cipher, BatchBuffer buffer, ByteBuffer values, ByteBuffer view,
+                                       int[] offsets, int i) throws Exception {
+        int length = offsets[i + 1] - offsets[i];
+        if (view == null) {
+            return buffer.encrypt(cipher, values.array(), values.arrayOffset() + offsets[i], length);
+        }
+        byte[] content = buffer.input(length);
+        view.limit(offsets[i + 1]).position(offsets[i]);
+        view.get(content, 0, length);
+        return buffer.encrypt(cipher, content, 0, length);
+    }
+
+    /**
+     * 批量加解密时线程复用的缓冲
+     */
+    private static final class BatchBuffer {
+
+        private static final int INITIAL_SIZE = 256;
+
+        private byte[] input = new byte[INITIAL_SIZE];
+
+        private byte[] output = new byte[INITIAL_SIZE];
+
+        private char[] hex = new char[INITIAL_SIZE * 2];
+
+        /**
+         * 最近一次encode的字节数
+         */
+        private int length;
+
+        byte[] input(int size) {
+            if (input.length < size) {
+                input = new byte[Math.max(size, input.length * 2)];
+            }
+            return input;
+        }
+
+        byte[] output(int size) {
+            if (output.length < size) {
+                output = new byte[Math.max(size, output.length * 2)];
+            }
+            return output;
+        }
+
+        /**
+         * 处理过超长的值后缩回初始大小，线程（如公共ForkJoinPool的线程）不会一直持有峰值大小的缓冲
+         */
+        void trim() {
+            if (input.length > MAX_RETAINED_BUFFER) {
+                input = new byte[INITIAL_SIZE];
+            }
+            if (output.length > MAX_RETAINED_BUFFER) {
+                output = new byte[INITIAL_SIZE];
+            }
+            if (hex.length > MAX_RETAINED_BUFFER * 2) {
+                hex = new char[INITIAL_SIZE * 2];
+            }
+        }
+
+        /**
+         * UTF-8编码，全为ASCII时写入复用的缓冲
+         */
+        byte[] encode(String value) {
+            int n = value.length();
+            byte[] bytes = input(n);
+            for (int i = 0; i < n; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    bytes = value.getBytes(StandardCharsets.UTF_8);
+                    length = bytes.length;
+                    return bytes;
+                }
+                bytes[i] = (byte) c;
+            }
+            length = n;
+            return bytes;
+        }
+
+        String encrypt(Cipher cipher, byte[] content, int offset, int len) throws Exception {
+            int n = cipher.doFinal(content, offset, len, output(cipher.getOutputSize(len)), 0);
+            if (hex.length < n * 2) {
+                hex = new char[Math.max(n * 2, hex.length * 2)];
+            }
+            return new String(hex, 0, toHex(output, n, hex));
+        }
+    }
+
     /**
      * 加解密
      *
@@ -75,22 +362,8 @@ public class AES {
             } else {
                 content = parseHexStr2Byte(data);
             }
-            // 1.构造密钥生成器，指定为AES算法,不区分大小写
-            KeyGenerator kgen = KeyGenerator.getInstance(KEY_AES);
-            // 2.根据ecnodeRules规则初始化密钥生成器
-            // 生成一个128位的随机源,根据传入的字节数组
-            kgen.init(128, new SecureRandom(key.getBytes()));
-            // 3.产生原始对称密钥
-            SecretKey secretKey = kgen.generateKey();
-            // 4.获得原始对称密钥的字节数组
-            byte[] enCodeFormat = secretKey.getEncoded();
-            // 5.根据字节数组生成AES密钥
-            SecretKeySpec keySpec = new SecretKeySpec(enCodeFormat, KEY_AES);
-            // 6.根据指定算法AES自成密码器
-            Cipher cipher = Cipher.getInstance(KEY_AES);// 创建密码器
-            // 7.初始化密码器，第一个参数为加密(Encrypt_mode)或者解密解密(Decrypt_mode)操作，第二个参数为使用的KEY
-            cipher.init(mode, keySpec);// 初始化
-            byte[] result = cipher.doFinal(content);
+            // 用当前线程复用的AES密码器加解密，密钥由密码派生且只派生一次，见CipherPool、KeyCache
+            byte[] result = CipherPool.getDefault().doFinal(KEY_AES, mode, key, content);
             if (encrypt) {
                 // 将二进制转换成16进制
                 return parseByte2HexStr(result);
@@ -110,15 +383,20 @@ public class AES {
      * @return
      */
     public static String parseByte2HexStr(byte buf[]) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < buf.length; i++) {
-            String hex = Integer.toHexString(buf[i] & 0xFF);
-            if (hex.length() == 1) {
-                hex = '0' + hex;
-            }
-            sb.append(hex.toUpperCase());
+        char[] hex = new char[buf.length * 2];
+        return new String(hex, 0, toHex(buf, buf.length, hex));
+    }
+
+    /**
+     * 把buf的前len个字节转换成大写16进制写入hex
+     */
+    private static int toHex(byte[] buf, int len, char[] hex) {
+        for (int i = 0; i < len; i++) {
+            int b = buf[i] & 0xFF;
+            hex[i * 2] = HEX_DIGITS[b >>> 4];
+            hex[i * 2 + 1] = HEX_DIGITS[b & 0x0F];
         }
-        return sb.toString();
+        return len * 2;
     }
 
     /**
@@ -1,10 +1,8 @@
 package security;
 
 import java.security.Key;
-import java.security.SecureRandom;
 
 import javax.crypto.Cipher;
-import javax.crypto.KeyGenerator;
 
 import lombok.extern.log4j.Log4j;
 import sun.misc.BASE64Decoder;
@@ -21,16 +19,15 @@ public class AESSecurity {
     public static String CIPHER_ALGORITHM = "AES";
 
 
+    /**
+     * 获取密码派生的密钥副本，派生结果由 {@link KeyCache} 缓存
+     */
     public static Key getSecretKey(String key) throws Exception {
         try {
             if (key == null) {
                 key = "";
             }
-            KeyGenerator _generator = KeyGenerator.getInstance("AES");
-            SecureRandom secureRandom = SecureRandom.getInstance("SHA1PRNG");
-            secureRandom.setSeed(key.getBytes());
-            _generator.init(128, secureRandom);
-            return _generator.generateKey();
+            return KeyCache.getDefault().copy(key);
         } catch (Exception e) {
             log.error(" 初始化密钥出现异常 ");
             throw new RuntimeException(" 初始化密钥出现异常 ");
@@ -41,25 +38,15 @@ public class AESSecurity {
         if (key == null) {
             key = "";
         }
-        SecureRandom sr = SecureRandom.getInstance("SHA1PRNG");
-        sr.setSeed(key.getBytes("UTF-8"));
-        Key securekey = getSecretKey(key);
-        Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
-        cipher.init(Cipher.ENCRYPT_MODE, securekey, sr);
-        byte[] bt = cipher.doFinal(data.getBytes());
+        byte[] bt = CipherPool.getDefault().doFinal(CIPHER_ALGORITHM, Cipher.ENCRYPT_MODE, key, data.getBytes());
         String strs = new BASE64Encoder().encode(bt);
         return strs;
     }
 
 
     public static String detrypt(String message, String key) throws Exception {
-        SecureRandom sr = SecureRandom.getInstance("SHA1PRNG");
-        sr.setSeed(key.getBytes("UTF-8"));
-        Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
-        Key securekey = getSecretKey(key);
-        cipher.init(Cipher.DECRYPT_MODE, securekey, sr);
         byte[] res = new BASE64Decoder().decodeBuffer(message);
-        res = cipher.doFinal(res);
+        res = CipherPool.getDefault().doFinal(CIPHER_ALGORITHM, Cipher.DECRYPT_MODE, key, res);
         return new String(res);
     }
 
@@ -0,0 +1,205 @@
+package security;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+
+import lombok.extern.log4j.Log4j;
+
+/**
+ * @Desc AES流式加解密
+ * <p>{@link AES} 只能处理整个字符串并输出两倍长度的16进制串，大文件需要整体读入内存。本类在流与通道之间分块调用
+ * Cipher.update，无论数据多大都只占用固定大小的缓冲：</p>
+ * <pre>
+ * 1.算法与密钥派生与 AES.encrypt 相同，输出的密文就是 AES.encrypt 结果的二进制形式（不做16进制转换），
+ *   即 AES.parseByte2HexStr(流式密文) 与 AES.encrypt 的结果相同，两者的密文可以互相解密
+ * 2.每个线程复用一组 {@link #BUFFER_SIZE} 大小的缓冲，Cipher取自 {@link CipherPool}
+ * 3.通道须为阻塞模式；Cipher在JDK 8中处理direct缓冲时每次都要分配临时数组，因此通道读写也使用堆缓冲，
+ *   与direct缓冲之间的复制由JDK按线程缓存的临时direct缓冲完成
+ * 4.不关闭传入的流和通道；解密失败（如密钥错误）时抛出异常，此前已写出的部分明文应丢弃
+ * </pre>
+ * @author zhuxianfei
+ * @date 2026/10/18 0:50
+ */
+@Log4j
+public final class AESStream {
+
+    /**
+     * 每次读取的字节数
+     */
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String KEY_AES = "AES";
+
+    /**
+     * update的输出最多比输入多出两个分组
+     */
+    private static final int OUTPUT_SIZE = BUFFER_SIZE + 32;
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private AESStream() {
+    }
+
+    /**
+     * <p>加密输入流写入输出流。</p>
+     *
+     * @param in  明文
+     * @param out 密文
+     * @param key 加密密码
+     * @return long 写出的密文字节数
+     * @throws IOException
+     * @throws GeneralSecurityException
+     */
+    public static long encrypt(InputStream in, OutputStream out, String key) throws IOException, GeneralSecurityException {
+        return transfer(in, out, key, Cipher.ENCRYPT_MODE);
+    }
+
+    /**
+     * <p>解密输入流写入输出流。</p>
+     *
+     * @param in  密文
+     * @param out 明文
+     * @param key 解密密码
+     * @return long 写出的明文字节数
+     * @throws IOException
+     * @throws GeneralSecurityException
+     */
+    public static long decrypt(InputStream in, OutputStream out, String key) throws IOException, GeneralSecurityException {
+        return transfer(in, out, key, Cipher.DECRYPT_MODE);
+    }
+
+    /**
+     * <p>加密输入通道写入输出通道，通道须为阻塞模式。</p>
+     *
+     * @param in  明文
+     * @param out 密文
+     * @param key 加密密码
+     * @return long 写出的密文字节数
+     * @throws IOException
+     * @throws GeneralSecurityException
+     */
+    public static long encrypt(ReadableByteChannel in, WritableByteChannel out, String key)
+            throws IOException, GeneralSecurityException {
+        return transfer(in, out, key, Cipher.ENCRYPT_MODE);
+    }
+
+    /**
+     * <p>解密输入通道写入输出通道，通道须为阻塞模式。</p>
+     *
+     * @param in  密文
+     * @param out 明文
+     * @param key 解密密码
+     * @return long 写出的明文字节数
+     * @throws IOException
+     * @throws GeneralSecurityException
+     */
+    public static long decrypt(ReadableByteChannel in, WritableByteChannel out, String key)
+            throws IOException, GeneralSecurityException {
+        return transfer(in, out, key, Cipher.DECRYPT_MODE);
+    }
+
+    private static long transfer(InputStream in, OutputStream out, String key, int mode)
+            throws IOException, GeneralSecurityException {
+        Buffers buffers = Buffers.acquire();
+        try (CipherPool.Lease lease = CipherPool.getDefault().acquire(KEY_AES, mode, key)) {
+            Cipher cipher = lease.getCipher();
+            byte[] input = buffers.input;
+            byte[] output = buffers.output;
+            long written = 0;
+            int n;
+            while ((n = in.read(input)) != -1) {
+                int m = cipher.update(input, 0, n, output, 0);
+                out.write(output, 0, m);
+                written += m;
+            }
+            int m = cipher.doFinal(output, 0);
+            out.write(output, 0, m);
+            return written + m;
+        } finally {
+            buffers.release();
+        }
+    }
+
+    private static long transfer(ReadableByteChannel in, WritableByteChannel out, String key, int mode)
+            throws IOException, GeneralSecurityException {
+        Buffers buffers = Buffers.acquire();
+        try (CipherPool.Lease lease = CipherPool.getDefault().acquire(KEY_AES, mode, key)) {
+            Cipher cipher = lease.getCipher();
+            ByteBuffer input = buffers.inputBuffer;
+            ByteBuffer output = buffers.outputBuffer;
+            long written = 0;
+            input.clear();
+            while (in.read(input) != -1) {
+                input.flip();
+                output.clear();
+                cipher.update(input, output);
+                input.clear();
+                written += drain(output, out);
+            }
+            input.flip();
+            output.clear();
+            cipher.doFinal(input, output);
+            return written + drain(output, out);
+        } finally {
+            buffers.release();
+        }
+    }
+
+    private static int drain(ByteBuffer output, WritableByteChannel out) throws IOException {
+        output.flip();
+        int n = output.remaining();
+        while (output.hasRemaining()) {
+            out.write(output);
+        }
+        return n;
+    }
+
+    /**
+     * 线程的缓冲，流在读写时又在同一线程调用本类（如嵌套解密）时另行分配
+     */
+    private static final class Buffers {
+
+        private final byte[] input = new byte[BUFFER_SIZE];
+
+        private final byte[] output = new byte[OUTPUT_SIZE];
+
+        private final ByteBuffer inputBuffer = ByteBuffer.wrap(input);
+
+        private final ByteBuffer outputBuffer = ByteBuffer.wrap(output);
+
+        private boolean inUse;
+
+        static Buffers acquire() {
+            Buffers buffers = BUFFERS.get();
+            if (buffers.inUse) {
+                buffers = new Buffers();
+            }
+            buffers.inUse = true;
+            return buffers;
+        }
+
+        void release() {
+            inUse = false;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String message = "123qwe..";
+        String key = "zhuxianfei";
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        encrypt(new ByteArrayInputStream(message.getBytes("UTF-8")), encrypted, key);
+        log.info("加密信息如下：" + AES.parseByte2HexStr(encrypted.toByteArray()));
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        decrypt(new ByteArrayInputStream(encrypted.toByteArray()), decrypted, key);
+        log.info("解密信息如下：" + decrypted.toString("UTF-8"));
+    }
+}
@@ -0,0 +1,333 @@
+package security;
+
+import java.security.GeneralSecurityException;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+
+/**
+ * @Desc 按线程复用的Cipher池
+ * <p>Cipher.getInstance 每次都要按转换名称查找Provider并创建新的Cipher，在多线程大批量加解密时是主要开销和竞争点。
+ * 本类为每个线程按（转换名称、加解密模式、密码）保存已初始化的Cipher，同一线程再次使用时直接复用：</p>
+ * <pre>
+ * 1.密钥来自 {@link KeyCache}，密码对应的密钥被淘汰或过期后重新派生时，下次取出的Cipher会用新密钥重新初始化
+ * 2.只有 {@link #doFinal(String, int, String, byte[])} 成功结束、Cipher回到初始化后的状态，且不使用IV（如ECB）时
+ *   才免去重新初始化；CBC、GCM等带IV的转换每次都重新初始化，生成新的随机IV，不会重复使用同一IV；
+ *   通过 {@link #acquire} 借出的Cipher状态未知，下次取出时一律重新初始化
+ * 3.使用中抛出异常的Cipher直接丢弃，不放回池中
+ * 4.每个线程最多保存 maxPerThread 个Cipher，超出后丢弃最久未用的
+ * 5.KeyCache淘汰、过期或清空密钥后，线程下次借出或放回Cipher时丢弃池中用已清零密钥初始化的Cipher及其密码，
+ *   不等到再次借出同一组合；不再使用本池的线程，其池中的Cipher在线程结束或调用 {@link #clearCurrentThread()} 时释放
+ * </pre>
+ * <p>命中、未命中、重新初始化、丢弃次数可通过统计方法获取。</p>
+ * @author zhuxianfei
+ * @date 2026/10/18 0:20
+ */
+public final class CipherPool {
+
+    /**
+     * 每个线程默认保存的Cipher个数
+     */
+    public static final int DEFAULT_MAX_PER_THREAD = 16;
+
+    private static final CipherPool DEFAULT = new CipherPool(KeyCache.getDefault(), DEFAULT_MAX_PER_THREAD);
+
+    private final KeyCache keyCache;
+
+    private final int maxPerThread;
+
+    private final ThreadLocal<Pool> pools = ThreadLocal.withInitial(Pool::new);
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder reinits = new LongAdder();
+
+    private final LongAdder discards = new LongAdder();
+
+    /**
+     * @param keyCache     密钥缓存
+     * @param maxPerThread 每个线程保存的Cipher个数
+     */
+    public CipherPool(KeyCache keyCache, int maxPerThread) {
+        if (maxPerThread < 1) {
+            throw new IllegalArgumentException("The maxPerThread must be a positive integer");
+        }
+        this.keyCache = Objects.requireNonNull(keyCache, "keyCache");
+        this.maxPerThread = maxPerThread;
+    }
+
+    /**
+     * <p>返回AES与AESSecurity使用的全局Cipher池，密钥来自 {@link KeyCache#getDefault()}。</p>
+     *
+     * @return CipherPool
+     */
+    public static CipherPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 丢弃池中用已清零密钥初始化的闲置Cipher，KeyCache自上次检查后没有清零过密钥时不扫描
+     */
+    private void purge(Pool pool) {
+        long destroyed = keyCache.getDestroyedCount();
+        if (pool.destroyed == destroyed) {
+            return;
+        }
+        pool.destroyed = destroyed;
+        Iterator<Lease> it = pool.values().iterator();
+        while (it.hasNext()) {
+            Lease lease = it.next();
+            if (lease.key == null || lease.key.isDestroyed()) {
+                it.remove();
+                lease.discard();
+            }
+        }
+    }
+
+    /**
+     * <p>用池中的Cipher一次性完成加解密，同 Cipher.doFinal(input)。</p>
+     *
+     * @param transformation 转换名称，如 AES
+     * @param mode           Cipher.ENCRYPT_MODE 或 Cipher.DECRYPT_MODE
+     * @param password       密码
+     * @param input          输入
+     * @return byte[]
+     * @throws GeneralSecurityException
+     */
+    public byte[] doFinal(String transformation, int mode, String password, byte[] input) throws GeneralSecurityException {
+        Lease lease = acquire(transformation, mode, password);
+        byte[] result;
+        try {
+            result = lease.cipher.doFinal(input);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            lease.discard();
+            throw e;
+        }
+        // 带IV的Cipher不经重新初始化就复用会重复使用同一IV，GCM加密甚至直接拒绝
+        lease.reusable = lease.cipher.getIV() == null;
+        lease.close();
+        return result;
+    }
+
+    /**
+     * <p>借出一个已用密码对应密钥初始化的Cipher，用完后在同一线程调用 {@link Lease#close()} 放回。</p>
+     *
+     * @param transformation 转换名称
+     * @param mode           加解密模式
+     * @param password       密码
+     * @return Lease
+     * @throws GeneralSecurityException
+     */
+    public Lease acquire(String transformation, int mode, String password) throws GeneralSecurityException {
+        return acquire(transformation, mode, password, null);
+    }
+
+    /**
+     * <p>借出一个已用密码对应密钥和给定参数（如IV）初始化的Cipher，用完后在同一线程调用 {@link Lease#close()} 放回。</p>
+     *
+     * @param transformation 转换名称，如 AES/CTR/NoPadding
+     * @param mode           加解密模式
+     * @param password       密码
+     * @param params         算法参数，null表示不需要
+     * @return Lease
+     * @throws GeneralSecurityException
+     */
+    public Lease acquire(String transformation, int mode, String password, AlgorithmParameterSpec params)
+            throws GeneralSecurityException {
+        Pool pool = pools.get();
+        purge(pool);
+        Slot slot = new Slot(transformation, mode, password);
+        Lease lease = pool.remove(slot);
+        if (lease == null) {
+            misses.increment();
+            lease = new Lease(pool, slot);
+        } else {
+            hits.increment();
+        }
+        lease.init(params);
+        return lease;
+    }
+
+    /**
+     * <p>丢弃当前线程池中的所有Cipher。</p>
+     */
+    public void clearCurrentThread() {
+        pools.remove();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getReinitCount() {
+        return reinits.sum();
+    }
+
+    public long getDiscardCount() {
+        return discards.sum();
+    }
+
+    /**
+     * 借出的Cipher，只能由借出它的线程使用和放回
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final Pool owner;
+
+        private final Slot slot;
+
+        private Cipher cipher;
+
+        /**
+         * 初始化cipher所用的密钥，与KeyCache当前的密钥不是同一个对象时需要重新初始化
+         */
+        private SecretKey key;
+
+        /**
+         * cipher处于初始化后的状态，可不经重新初始化再次借出
+         */
+        private boolean reusable;
+
+        private boolean leased;
+
+        private Lease(Pool owner, Slot slot) {
+            this.owner = owner;
+            this.slot = slot;
+        }
+
+        private void init(AlgorithmParameterSpec params) throws GeneralSecurityException {
+            for (;;) {
+                SecretKey current = keyCache.get(slot.password);
+                if (cipher != null && params == null && reusable && current == key) {
+                    break;
+                }
+                if (cipher == null) {
+                    cipher = Cipher.getInstance(slot.transformation);
+                } else {
+                    reinits.increment();
+                }
+                try {
+                    if (params == null) {
+                        cipher.init(slot.mode, current);
+                    } else {
+                        cipher.init(slot.mode, current, params);
+                    }
+                    key = current;
+                    break;
+                } catch (IllegalStateException e) {
+                    // 初始化失败的Cipher可能无法再用，丢弃；密钥已被清零则重新获取
+                    cipher = null;
+                    if (!current.isDestroyed()) {
+                        throw e;
+                    }
+                } catch (GeneralSecurityException | RuntimeException e) {
+                    cipher = null;
+                    throw e;
+                }
+            }
+            reusable = false;
+            leased = true;
+        }
+
+        public Cipher getCipher() {
+            return cipher;
+        }
+
+        /**
+         * 使用中出错，不放回池中
+         */
+        private void discard() {
+            discards.increment();
+            cipher = null;
+            key = null;
+            leased = false;
+        }
+
+        /**
+         * <p>放回当前线程的池中，重复调用无效；密钥已被清零的不再放回。</p>
+         */
+        @Override
+        public void close() {
+            if (leased) {
+                if (key.isDestroyed()) {
+                    discard();
+                } else {
+                    leased = false;
+                    owner.put(slot, this);
+                }
+                purge(owner);
+            }
+        }
+    }
+
+    /**
+     * 线程的池，按访问顺序排列，超出容量时丢弃最久未用的
+     */
+    private final class Pool extends LinkedHashMap<Slot, Lease> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 上次检查时KeyCache已清零的密钥数
+         */
+        private long destroyed;
+
+        Pool() {
+            super(16, 0.75f, true);
+            destroyed = keyCache.getDestroyedCount();
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Slot, Lease> eldest) {
+            if (size() > maxPerThread) {
+                discards.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class Slot {
+
+        private final String transformation;
+
+        private final int mode;
+
+        private final String password;
+
+        Slot(String transformation, int mode, String password) {
+            this.transformation = Objects.requireNonNull(transformation, "transformation");
+            this.mode = mode;
+            this.password = Objects.requireNonNull(password, "password");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Slot)) {
+                return false;
+            }
+            Slot slot = (Slot) o;
+            return mode == slot.mode && transformation.equals(slot.transformation) && password.equals(slot.password);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(transformation, mode, password);
+        }
+    }
+}
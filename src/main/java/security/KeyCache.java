@@ -0,0 +1,245 @@
+package security;
+
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import cache.SecondChanceCache;
+
+/**
+ * @Desc 按密码缓存的AES派生密钥
+ * <p>{@link AES} 与 {@link AESSecurity} 每次加解密都要 KeyGenerator.getInstance、以密码为种子初始化SHA1PRNG
+ * 再生成密钥，耗时远大于加解密本身。本类以密码为键缓存派生出的128位密钥，同一密码只派生一次：</p>
+ * <pre>
+ * 1.容量有上限，超出后按二次机会算法（{@link SecondChanceCache}）淘汰最近未被访问的密钥
+ * 2.每个密钥自派生起超过存活时间后失效，下次访问时重新派生
+ * 3.被淘汰、过期或清空的密钥立即把内部字节清零，之后 getEncoded 抛出IllegalStateException
+ * 4.密钥可能在取出后、初始化Cipher前被并发淘汰，使用 {@link #newCipher(String, int, String)} 会在这种情况下重新获取
+ * </pre>
+ * <p>命中、未命中、淘汰、过期次数可通过统计方法获取。</p>
+ * @author zhuxianfei
+ * @date 2026/10/17 23:40
+ */
+public final class KeyCache {
+
+    /**
+     * 默认容量
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    /**
+     * 默认存活时间，毫秒
+     */
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private static final String KEY_AES = "AES";
+
+    private static final KeyCache DEFAULT = new KeyCache(DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS);
+
+    /**
+     * 被淘汰、过期、清空或并发派生落选的密钥由缓存回调清零
+     */
+    private final SecondChanceCache<String, CachedKey> keys;
+
+    private final long ttlNanos;
+
+    /**
+     * 被清零的密钥总数，{@link CipherPool} 据此判断是否需要清理闲置的Cipher
+     */
+    private final AtomicLong destroyed = new AtomicLong();
+
+    /**
+     * @param maxSize   容量
+     * @param ttlMillis 存活时间，毫秒
+     */
+    public KeyCache(int maxSize, long ttlMillis) {
+        this.keys = new SecondChanceCache<>(maxSize, this::destroy);
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("The ttlMillis must be a positive number");
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * <p>返回AES与AESSecurity使用的全局缓存。</p>
+     *
+     * @return KeyCache
+     */
+    public static KeyCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * <p>以密码为种子派生AES-128密钥，与旧版每次调用的做法相同：SHA1PRNG以 password.getBytes() 为种子，
+     * 初始化128位的AES KeyGenerator生成密钥。</p>
+     *
+     * @param password 密码
+     * @return byte[] 16字节密钥
+     */
+    public static byte[] derive(String password) {
+        try {
+            KeyGenerator generator = KeyGenerator.getInstance(KEY_AES);
+            SecureRandom secureRandom = SecureRandom.getInstance("SHA1PRNG");
+            secureRandom.setSeed(password.getBytes());
+            generator.init(128, secureRandom);
+            return generator.generateKey().getEncoded();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * <p>获取密码对应的密钥，未缓存或已过期时派生并放入缓存。</p>
+     * <p>返回的密钥归缓存所有，被淘汰后即失效，只应立即用于初始化Cipher，不要长期持有；需要长期持有时用
+     * {@link #copy(String)}。</p>
+     *
+     * @param password 密码
+     * @return SecretKey
+     */
+    public SecretKey get(String password) {
+        return keys.get(password, this::isExpired, p -> new CachedKey(derive(p)));
+    }
+
+    private boolean isExpired(CachedKey key) {
+        return System.nanoTime() - key.created >= ttlNanos;
+    }
+
+    /**
+     * <p>创建Cipher并用密码对应的密钥初始化；密钥恰好在初始化前被并发淘汰时重新获取。</p>
+     * <p>延迟选择Provider的Cipher初始化失败一次后不能再用，重试时需要新建，因此由本方法创建Cipher。</p>
+     *
+     * @param transformation 转换名称，如 AES
+     * @param mode           Cipher.ENCRYPT_MODE 或 Cipher.DECRYPT_MODE
+     * @param password       密码
+     * @return Cipher
+     * @throws GeneralSecurityException
+     */
+    public Cipher newCipher(String transformation, int mode, String password) throws GeneralSecurityException {
+        for (;;) {
+            SecretKey key = get(password);
+            Cipher cipher = Cipher.getInstance(transformation);
+            try {
+                cipher.init(mode, key);
+                return cipher;
+            } catch (IllegalStateException e) {
+                if (!key.isDestroyed()) {
+                    throw e;
+                }
+                // 密钥已被清零，重新获取
+            }
+        }
+    }
+
+    /**
+     * <p>获取密码对应密钥的独立副本，不受缓存淘汰影响。</p>
+     *
+     * @param password 密码
+     * @return SecretKey
+     */
+    public SecretKey copy(String password) {
+        for (;;) {
+            try {
+                byte[] encoded = get(password).getEncoded();
+                SecretKeySpec spec = new SecretKeySpec(encoded, KEY_AES);
+                Arrays.fill(encoded, (byte) 0);
+                return spec;
+            } catch (IllegalStateException e) {
+                // 密钥已被清零，重新获取
+            }
+        }
+    }
+
+    /**
+     * <p>清空缓存并清零所有密钥，统计数据保留。</p>
+     */
+    public void clear() {
+        keys.clear();
+    }
+
+    private void destroy(CachedKey key) {
+        key.destroy();
+        destroyed.incrementAndGet();
+    }
+
+    /**
+     * 已清零的密钥总数，只增不减
+     */
+    long getDestroyedCount() {
+        return destroyed.get();
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    public long getHitCount() {
+        return keys.getHitCount();
+    }
+
+    public long getMissCount() {
+        return keys.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return keys.getEvictionCount();
+    }
+
+    public long getExpirationCount() {
+        return keys.getInvalidationCount();
+    }
+
+    /**
+     * 缓存中的密钥，清零与取出字节互斥，Cipher不会拿到清零了一半的密钥
+     */
+    private static final class CachedKey implements SecretKey {
+
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] encoded;
+
+        private final long created = System.nanoTime();
+
+        private boolean destroyed;
+
+        CachedKey(byte[] encoded) {
+            this.encoded = encoded;
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return KEY_AES;
+        }
+
+        @Override
+        public String getFormat() {
+            return "RAW";
+        }
+
+        @Override
+        public synchronized byte[] getEncoded() {
+            if (destroyed) {
+                throw new IllegalStateException("Key has been destroyed");
+            }
+            return encoded.clone();
+        }
+
+        @Override
+        public synchronized void destroy() {
+            Arrays.fill(encoded, (byte) 0);
+            destroyed = true;
+        }
+
+        @Override
+        public synchronized boolean isDestroyed() {
+            return destroyed;
+        }
+    }
+}
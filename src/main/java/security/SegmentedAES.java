@@ -0,0 +1,662 @@
+package security;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import lombok.extern.log4j.Log4j;
+
+/**
+ * @Desc 分段认证加密的文件格式
+ * <p>把数据按固定大小分段，每段独立用AES-GCM加密并带认证标签，各段在给定的Executor上并行加解密，
+ * 任意一段也可单独解密。文件格式如下（整数均为大端）：</p>
+ * <pre>
+ * 文件头 44 字节
+ *    0   4  魔数 AESG
+ *    4   1  版本 1
+ *    5   3  保留 0
+ *    8   4  每段明文字节数
+ *   12   8  明文总长度
+ *   20  16  随机盐
+ *   36   8  随机nonce前缀
+ * 之后依次为各段：密文 || 16字节标签，最后一段可不足一段，明文为空时也有一个空段
+ *
+ * 1.文件密钥 = HMAC-SHA256(密码派生的AES密钥, 盐 || "segment") 的前16字节，每个文件各不相同，
+ *   密码派生方式与 {@link AES#encrypt(String, String)} 相同
+ * 2.第i段的nonce = nonce前缀 || i（4字节），整个文件头作为每段的附加认证数据，
+ *   段被篡改、调换、截断或文件头被修改时，解密抛出AEADBadTagException
+ * 3.文件读写用FileChannel按位置进行，不受单个映射2GB的限制；ByteBuffer版本的方法可直接传入MappedByteBuffer
+ * 4.每个线程按 min(段大小, 明文长度) 分配缓冲，不超过默认段大小的缓冲和Cipher留给线程复用，更大的缓冲用完即释放；
+ *   解密时可限制文件头中段大小的上限，超出时拒绝打开
+ * 5.文件加解密先写入目标所在目录下的临时文件，全部成功后再替换目标，失败时删除临时文件，目标保持原样
+ * </pre>
+ * <p>实例不可变，可在线程间共享。</p>
+ * @author zhuxianfei
+ * @date 2026/10/18 1:30
+ */
+@Log4j
+public final class SegmentedAES {
+
+    /**
+     * 默认每段明文字节数
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+
+    public static final int MIN_SEGMENT_SIZE = 1 << 10;
+
+    public static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+    public static final int HEADER_SIZE = 44;
+
+    public static final int TAG_SIZE = 16;
+
+    private static final int MAGIC = 0x41455347;
+
+    private static final byte VERSION = 1;
+
+    private static final int SALT_SIZE = 16;
+
+    private static final int NONCE_PREFIX_SIZE = 8;
+
+    private static final int NONCE_SIZE = 12;
+
+    /**
+     * 段号在nonce中占4字节
+     */
+    private static final long MAX_SEGMENT_COUNT = 1L << 32;
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final byte[] KEY_INFO = "segment".getBytes(StandardCharsets.US_ASCII);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final ThreadLocal<Work> WORK = ThreadLocal.withInitial(Work::new);
+
+    private final String password;
+
+    private final int segmentSize;
+
+    private final Executor executor;
+
+    /**
+     * 解密时文件头中段大小的上限
+     */
+    private final int maxSegmentSize;
+
+    /**
+     * <p>使用默认段大小，在公共ForkJoinPool上并行。</p>
+     *
+     * @param password 密码
+     */
+    public SegmentedAES(String password) {
+        this(password, DEFAULT_SEGMENT_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param password    密码
+     * @param segmentSize 加密时每段明文字节数，解密时以文件头为准
+     * @param executor    执行各段加解密的Executor，传入 Runnable::run 则在调用线程上顺序执行
+     */
+    public SegmentedAES(String password, int segmentSize, Executor executor) {
+        this(password, segmentSize, executor, MAX_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param password       密码
+     * @param segmentSize    加密时每段明文字节数
+     * @param executor       执行各段加解密的Executor
+     * @param maxSegmentSize 解密时接受的文件头中段大小的上限，超出时抛出IOException，用于限制不可信文件占用的内存
+     */
+    public SegmentedAES(String password, int segmentSize, Executor executor, int maxSegmentSize) {
+        if (password == null) {
+            throw new NullPointerException("password");
+        }
+        if (segmentSize < MIN_SEGMENT_SIZE || segmentSize > MAX_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("The segmentSize must be between " + MIN_SEGMENT_SIZE + " and " + MAX_SEGMENT_SIZE);
+        }
+        if (executor == null) {
+            throw new NullPointerException("executor");
+        }
+        if (maxSegmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("The maxSegmentSize must not be less than " + MIN_SEGMENT_SIZE);
+        }
+        this.password = password;
+        this.segmentSize = segmentSize;
+        this.executor = executor;
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    /**
+     * <p>明文加密后的总字节数。</p>
+     *
+     * @param plaintextLength 明文长度
+     * @param segmentSize     每段明文字节数
+     * @return long
+     */
+    public static long encryptedSize(long plaintextLength, int segmentSize) {
+        return HEADER_SIZE + plaintextLength + segmentCount(plaintextLength, segmentSize) * TAG_SIZE;
+    }
+
+    private static long segmentCount(long plaintextLength, int segmentSize) {
+        return plaintextLength == 0 ? 1 : (plaintextLength + segmentSize - 1) / segmentSize;
+    }
+
+    /**
+     * <p>加密文件。</p>
+     *
+     * @param source 明文文件
+     * @param target 密文文件，已存在时在加密成功后覆盖，失败时保持原样
+     * @return long 密文字节数
+     * @throws IOException
+     * @throws GeneralSecurityException
+     */
+    public long encrypt(Path source, Path target) throws IOException, GeneralSecurityException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            return writeAtomically(target, out -> encrypt(in.size(), (position, b, len) -> readFully(in, position, b, len),
+                    (position, b, len) -> writeFully(out, position, b, len)));
+        }
+    }
+
+    /**
+     * <p>解密文件。</p>
+     *
+     * @param source 密文文件
+     * @param target 明文文件，全部段都通过认证后才创建或覆盖；任一段认证失败时不产生部分明文，目标保持原样
+     * @return long 明文字节数
+     * @throws IOException
+     * @throws GeneralSecurityException
+     */
+    public long decrypt(Path source, Path target) throws IOException, GeneralSecurityException {
+        try (Reader reader = open(source)) {
+            return writeAtomically(target, out -> decrypt(reader, (position, b, len) -> writeFully(out, position, b, len)));
+        }
+    }
+
+    /**
+     * 写入target所在目录下的临时文件，成功后替换target，失败时删除临时文件
+     */
+    private static long writeAtomically(Path target, FileWriter writer) throws IOException, GeneralSecurityException {
+        Path temp = target.resolveSibling(target.getFileName() + "." + Long.toHexString(RANDOM.nextLong()) + ".tmp");
+        boolean moved = false;
+        try {
+            long n;
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                n = writer.write(out);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            moved = true;
+            return n;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * <p>加密source剩余的字节，写入target当前位置起的 {@link #encryptedSize(long, int)} 个字节，两者的位置随之前移。
+     * 可传入MappedByteBuffer。</p>
+     *
+     * @param source 明文
+     * @param target 密文
+     * @throws GeneralSecurityException
+     */
+    public void encrypt(ByteBuffer source, ByteBuffer target) throws GeneralSecurityException {
+        long length = source.remaining();
+        long size = encryptedSize(length, segmentSize);
+        if (target.remaining() < size) {
+            throw new IllegalArgumentException("The target buffer needs " + size + " bytes");
+        }
+        int in = source.position();
+        int out = target.position();
+        try {
+            encrypt(length, (position, b, len) -> get(source, in + position, b, len),
+                    (position, b, len) -> put(target, out + position, b, len));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        source.position(source.limit());
+        target.position(out + (int) size);
+    }
+
+    /**
+     * <p>解密source剩余的字节（一个完整的密文），写入target当前位置起，两者的位置随之前移。可传入MappedByteBuffer。</p>
+     *
+     * @param source 密文
+     * @param target 明文
+     * @throws IOException              不是本格式的密文
+     * @throws GeneralSecurityException
+     */
+    public void decrypt(ByteBuffer source, ByteBuffer target) throws IOException, GeneralSecurityException {
+        int in = source.position();
+        int out = target.position();
+        Reader reader = new Reader((position, b, len) -> get(source, in + position, b, len), source.remaining(), null);
+        if (target.remaining() < reader.getLength()) {
+            throw new IllegalArgumentException("The target buffer needs " + reader.getLength() + " bytes");
+        }
+        decrypt(reader, (position, b, len) -> put(target, out + position, b, len));
+        source.position(source.limit());
+        target.position(out + (int) reader.getLength());
+    }
+
+    /**
+     * <p>打开密文文件用于按段或按位置随机读取，可由多个线程同时读取。</p>
+     *
+     * @param source 密文文件
+     * @return Reader
+     * @throws IOException              不是本格式的密文
+     * @throws GeneralSecurityException 文件长度与文件头不符
+     */
+    public Reader open(Path source) throws IOException, GeneralSecurityException {
+        FileChannel channel = FileChannel.open(source, StandardOpenOption.READ);
+        try {
+            return new Reader((position, b, len) -> readFully(channel, position, b, len), channel.size(), channel);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private long encrypt(long length, Input in, Output out) throws IOException, GeneralSecurityException {
+        Header header = Header.create(segmentSize, length);
+        SecretKey key = header.fileKey(password);
+        out.write(0, header.bytes, HEADER_SIZE);
+        forEachSegment(header, (index, work) -> {
+            int n = header.plaintextSize(index);
+            in.read(index * header.segmentSize, work.input, n);
+            int m = work.crypt(Cipher.ENCRYPT_MODE, key, header, index, n);
+            out.write(header.segmentOffset(index), work.output, m);
+        });
+        return encryptedSize(length, segmentSize);
+    }
+
+    private long decrypt(Reader reader, Output out) throws IOException, GeneralSecurityException {
+        Header header = reader.header;
+        forEachSegment(header, (index, work) -> {
+            int n = reader.decrypt(index, work);
+            out.write(index * header.segmentSize, work.output, n);
+        });
+        return header.length;
+    }
+
+    /**
+     * 把各段分成若干连续区间交给executor，任一段失败后其余区间尽快停止，抛出第一个异常
+     */
+    private void forEachSegment(Header header, SegmentTask task) throws IOException, GeneralSecurityException {
+        long count = header.segmentCount();
+        int tasks = (int) Math.min(count, Runtime.getRuntime().availableProcessors() * 4L);
+        AtomicBoolean failed = new AtomicBoolean();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks];
+        for (int t = 0; t < tasks; t++) {
+            long from = count * t / tasks;
+            long to = count * (t + 1) / tasks;
+            futures[t] = CompletableFuture.runAsync(() -> {
+                Work work = Work.acquire(header);
+                try {
+                    for (long index = from; index < to && !failed.get(); index++) {
+                        task.run(index, work);
+                    }
+                } catch (IOException | GeneralSecurityException | RuntimeException e) {
+                    failed.set(true);
+                    throw new CompletionException(e);
+                } finally {
+                    work.release();
+                }
+            }, executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof GeneralSecurityException) {
+                throw (GeneralSecurityException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void readFully(FileChannel channel, long position, byte[] b, int len) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(b, 0, len);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, long position, byte[] b, int len) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(b, 0, len);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private static void get(ByteBuffer source, long position, byte[] b, int len) {
+        ByteBuffer view = source.duplicate();
+        view.position((int) position);
+        view.get(b, 0, len);
+    }
+
+    private static void put(ByteBuffer target, long position, byte[] b, int len) {
+        ByteBuffer view = target.duplicate();
+        view.position((int) position);
+        view.put(b, 0, len);
+    }
+
+    private interface Input {
+        void read(long position, byte[] b, int len) throws IOException;
+    }
+
+    private interface Output {
+        void write(long position, byte[] b, int len) throws IOException;
+    }
+
+    private interface FileWriter {
+        long write(FileChannel out) throws IOException, GeneralSecurityException;
+    }
+
+    private interface SegmentTask {
+        void run(long index, Work work) throws IOException, GeneralSecurityException;
+    }
+
+    /**
+     * 随机读取密文，文件头只解析一次，文件密钥只派生一次
+     */
+    public final class Reader implements Closeable {
+
+        private final Input input;
+
+        private final Closeable resource;
+
+        private final Header header;
+
+        private final SecretKey key;
+
+        private Reader(Input input, long size, Closeable resource) throws IOException, GeneralSecurityException {
+            if (size < HEADER_SIZE) {
+                throw new IOException("Not a segmented AES file");
+            }
+            byte[] bytes = new byte[HEADER_SIZE];
+            input.read(0, bytes, HEADER_SIZE);
+            this.header = Header.parse(bytes);
+            if (header.segmentSize > maxSegmentSize) {
+                throw new IOException("The segment size " + header.segmentSize + " exceeds the limit " + maxSegmentSize);
+            }
+            if (size != encryptedSize(header.length, header.segmentSize)) {
+                throw new AEADBadTagException("The file size does not match the header");
+            }
+            this.input = input;
+            this.resource = resource;
+            this.key = header.fileKey(password);
+        }
+
+        /**
+         * @return long 明文总长度
+         */
+        public long getLength() {
+            return header.length;
+        }
+
+        public int getSegmentSize() {
+            return header.segmentSize;
+        }
+
+        public long getSegmentCount() {
+            return header.segmentCount();
+        }
+
+        /**
+         * <p>解密第index段。</p>
+         *
+         * @param index 段号，从0开始
+         * @return byte[] 该段明文
+         * @throws IOException
+         * @throws GeneralSecurityException 该段或文件头被篡改
+         */
+        public byte[] readSegment(long index) throws IOException, GeneralSecurityException {
+            Work work = Work.acquire(header);
+            try {
+                return Arrays.copyOf(work.output, decrypt(index, work));
+            } finally {
+                work.release();
+            }
+        }
+
+        /**
+         * <p>从明文的position处读取最多len个字节，只解密涉及的段。</p>
+         *
+         * @param position 明文位置
+         * @param b        输出
+         * @param off      输出起始下标
+         * @param len      最多读取的字节数
+         * @return int 读取的字节数，position不小于明文长度时为-1
+         * @throws IOException
+         * @throws GeneralSecurityException 涉及的段或文件头被篡改
+         */
+        public int read(long position, byte[] b, int off, int len) throws IOException, GeneralSecurityException {
+            if (position < 0 || off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            if (position >= header.length) {
+                return -1;
+            }
+            Work work = Work.acquire(header);
+            try {
+                int total = (int) Math.min(len, header.length - position);
+                int done = 0;
+                while (done < total) {
+                    long p = position + done;
+                    long index = p / header.segmentSize;
+                    int skip = (int) (p - index * header.segmentSize);
+                    int n = Math.min(decrypt(index, work) - skip, total - done);
+                    System.arraycopy(work.output, skip, b, off + done, n);
+                    done += n;
+                }
+                return total;
+            } finally {
+                work.release();
+            }
+        }
+
+        private int decrypt(long index, Work work) throws IOException, GeneralSecurityException {
+            if (index < 0 || index >= header.segmentCount()) {
+                throw new IndexOutOfBoundsException("Segment " + index);
+            }
+            int n = header.plaintextSize(index) + TAG_SIZE;
+            input.read(header.segmentOffset(index), work.input, n);
+            return work.crypt(Cipher.DECRYPT_MODE, key, header, index, n);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (resource != null) {
+                resource.close();
+            }
+        }
+    }
+
+    private static final class Header {
+
+        private final byte[] bytes;
+
+        private final int segmentSize;
+
+        private final long length;
+
+        private Header(byte[] bytes, int segmentSize, long length) {
+            this.bytes = bytes;
+            this.segmentSize = segmentSize;
+            this.length = length;
+        }
+
+        static Header create(int segmentSize, long length) {
+            if (SegmentedAES.segmentCount(length, segmentSize) > MAX_SEGMENT_COUNT) {
+                throw new IllegalArgumentException("Too many segments, use a larger segmentSize");
+            }
+            byte[] random = new byte[SALT_SIZE + NONCE_PREFIX_SIZE];
+            RANDOM.nextBytes(random);
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+            buffer.putInt(MAGIC).put(VERSION).put(new byte[3]).putInt(segmentSize).putLong(length).put(random);
+            return new Header(buffer.array(), segmentSize, length);
+        }
+
+        static Header parse(byte[] bytes) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a segmented AES file");
+            }
+            if (buffer.get() != VERSION) {
+                throw new IOException("Unsupported segmented AES version");
+            }
+            buffer.position(8);
+            int segmentSize = buffer.getInt();
+            long length = buffer.getLong();
+            if (segmentSize < MIN_SEGMENT_SIZE || segmentSize > MAX_SEGMENT_SIZE || length < 0
+                    || SegmentedAES.segmentCount(length, segmentSize) > MAX_SEGMENT_COUNT) {
+                throw new IOException("Corrupted segmented AES header");
+            }
+            return new Header(bytes, segmentSize, length);
+        }
+
+        /**
+         * 加解密一段所需的缓冲大小，不超过明文长度
+         */
+        int bufferSize() {
+            return (int) Math.min(segmentSize, length) + TAG_SIZE;
+        }
+
+        long segmentCount() {
+            return SegmentedAES.segmentCount(length, segmentSize);
+        }
+
+        int plaintextSize(long index) {
+            return (int) Math.min(segmentSize, length - index * segmentSize);
+        }
+
+        long segmentOffset(long index) {
+            return HEADER_SIZE + index * (segmentSize + (long) TAG_SIZE);
+        }
+
+        void nonce(long index, byte[] nonce) {
+            System.arraycopy(bytes, HEADER_SIZE - NONCE_PREFIX_SIZE, nonce, 0, NONCE_PREFIX_SIZE);
+            nonce[8] = (byte) (index >>> 24);
+            nonce[9] = (byte) (index >>> 16);
+            nonce[10] = (byte) (index >>> 8);
+            nonce[11] = (byte) index;
+        }
+
+        SecretKey fileKey(String password) throws GeneralSecurityException {
+            byte[] master = KeyCache.getDefault().copy(password).getEncoded();
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(master, "HmacSHA256"));
+            mac.update(bytes, 20, SALT_SIZE);
+            byte[] digest = mac.doFinal(KEY_INFO);
+            SecretKey key = new SecretKeySpec(digest, 0, 16, "AES");
+            Arrays.fill(master, (byte) 0);
+            Arrays.fill(digest, (byte) 0);
+            return key;
+        }
+    }
+
+    /**
+     * 每个线程的缓冲和Cipher，超过默认段大小的缓冲不留给线程复用
+     */
+    private static final class Work {
+
+        private static final byte[] EMPTY = new byte[0];
+
+        private static final int RETAINED_SIZE = DEFAULT_SEGMENT_SIZE + TAG_SIZE;
+
+        private byte[] input = EMPTY;
+
+        private byte[] output = EMPTY;
+
+        private final byte[] nonce = new byte[NONCE_SIZE];
+
+        private Cipher cipher;
+
+        static Work acquire(Header header) {
+            Work work = WORK.get();
+            int size = header.bufferSize();
+            if (work.input.length < size) {
+                work.input = new byte[size];
+                work.output = new byte[size];
+            }
+            return work;
+        }
+
+        void release() {
+            if (input.length > RETAINED_SIZE) {
+                input = EMPTY;
+                output = EMPTY;
+            }
+        }
+
+        /**
+         * 加解密input的前len个字节写入output
+         */
+        int crypt(int mode, SecretKey key, Header header, long index, int len) throws GeneralSecurityException {
+            if (cipher == null) {
+                cipher = Cipher.getInstance(TRANSFORMATION);
+            }
+            header.nonce(index, nonce);
+            cipher.init(mode, key, new GCMParameterSpec(TAG_SIZE * 8, nonce));
+            cipher.updateAAD(header.bytes);
+            return cipher.doFinal(input, 0, len, output, 0);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path plain = Files.createTempFile("segmented", ".txt");
+        Path encrypted = Files.createTempFile("segmented", ".enc");
+        Path decrypted = Files.createTempFile("segmented", ".dec");
+        try {
+            Files.write(plain, "123qwe..".getBytes(StandardCharsets.UTF_8));
+            SegmentedAES aes = new SegmentedAES("zhuxianfei");
+            log.info("加密后字节数：" + aes.encrypt(plain, encrypted));
+            aes.decrypt(encrypted, decrypted);
+            log.info("解密信息如下：" + new String(Files.readAllBytes(decrypted), StandardCharsets.UTF_8));
+        } finally {
+            Files.deleteIfExists(plain);
+            Files.deleteIfExists(encrypted);
+            Files.deleteIfExists(decrypted);
+        }
+    }
+}